@@ -0,0 +1,74 @@
+package minesweeper;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javafx.application.Platform;
+
+/**
+ * This class runs AI analysis in the background so that the JavaFX thread never waits on the AI. Each request
+ * analyzes a copy of the board built from a snapshot, and the result is handed back on the JavaFX thread. Making a
+ * new request or cancelling interrupts the analysis that is still running, and its result is thrown away. Every
+ * game shares one bounded pool of worker threads, and a request can be delayed to pace how fast an AI plays.
+ */
+public class AnalysisService {
+    private static final ScheduledExecutorService POOL = Executors.newScheduledThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1), (Runnable task) -> {
+                Thread thread = new Thread(task, "minesweeper-analysis");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private Future<?> pending;
+    private long generation;
+
+    /**
+     * This method is the constructor which starts with no analysis running.
+     */
+    public AnalysisService() {
+        this.pending = null;
+        this.generation = 0;
+    }
+    /**
+     * This method cancels any analysis that is still running and starts running the given analysis on a copy of the
+     * snapshot, calling onResult on the JavaFX thread when it finishes unless another request or a cancel came first.
+     */
+    public <T> void request(BoardSnapshot snapshot, Function<Board, T> analysis, Consumer<T> onResult) {
+        this.request(snapshot, 0, analysis, onResult);
+    }
+    /**
+     * This method works like the request method above but waits the given number of milliseconds on the worker pool
+     * before the analysis starts, without holding a thread while it waits.
+     */
+    public <T> void request(BoardSnapshot snapshot, long delayMillis, Function<Board, T> analysis,
+                            Consumer<T> onResult) {
+        this.cancel();
+        long requestGeneration = this.generation;
+        this.pending = POOL.schedule(() -> {
+            Board copy = new Board(snapshot, null);
+            T result = analysis.apply(copy);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            Platform.runLater(() -> {
+                if (requestGeneration == this.generation) {
+                    this.pending = null;
+                    onResult.accept(result);
+                }
+            });
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+    /**
+     * This method cancels the analysis that is still running so its result is never applied.
+     */
+    public void cancel() {
+        this.generation++;
+        if (this.pending != null) {
+            this.pending.cancel(true);
+            this.pending = null;
+        }
+    }
+}
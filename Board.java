@@ -1,36 +1,95 @@
 package minesweeper;
 
-import java.util.ArrayList;
-
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.util.Duration;
+import java.util.Arrays;
+import java.util.Random;
 
 /**
  * This class is responsible for logic in relation to the minesweeper board, including changes to flags/mines being
  * placed as well as board generation and checking for when the game is over.
  */
 public class Board {
+    private static final int MINE = 0;
+    private static final int NUMBER = 1;
+    private static final int EMPTY = 2;
     private Cell[][] grid;
     private int rows;
     private int cols;
     private int numMines;
     private boolean initialized;
     private boolean gameOver;
+    private boolean won;
     private int flagCount;
-    private MSGame controller;
+    private boolean shown;
+    private UndoHistory history;
+    private MineRevealAnimation mineReveal;
+    private Random random;
+    private BitBoard mineLayout;
+    private byte[] clues;
+    private long[] blocked;
+    private int revealCount;
+    private FillMode fillMode;
+    private ZeroRegions regions;
+    private Cell[][] spares;
+    private int[] spareCounts;
+    private int[] fillQueue;
+    private int[] fillMarks;
+    private int fillMark;
+    private BoardStream stream;
+    private GameEventRing events;
+    private Topology topology;
 
     /**
-     * This method is the constructor, which takes in four parameters that get assigned to instance variables.
+     * This method is the constructor, which takes in four parameters that get assigned to instance variables. The
+     * controller may be null for a board that is only used for analysis and is never shown. The board does not keep
+     * the controller, which only tells it that a lost game should reveal its mines with an animation, and the
+     * controller draws the board from the events it reads.
      */
     public Board(int rows, int cols, int numMines, MSGame controller) {
+        this(rows, cols, numMines, controller, new Random(), TopologyKind.SQUARE);
+    }
+    /**
+     * This method is a constructor that places the mines using a random generator started from the given seed, so
+     * the same seed and first click always give the same board.
+     */
+    public Board(int rows, int cols, int numMines, MSGame controller, long seed) {
+        this(rows, cols, numMines, controller, new Random(seed), TopologyKind.SQUARE);
+    }
+    /**
+     * This method is a constructor like the seeded one for a board whose cells are neighbors by the given kind of
+     * topology instead of the usual eight cells around them.
+     */
+    public Board(int rows, int cols, int numMines, MSGame controller, long seed, TopologyKind kind) {
+        this(rows, cols, numMines, controller, new Random(seed), kind);
+    }
+    /**
+     * This method is the constructor that the other constructors delegate to, which stores the random generator
+     * used to place the mines and the topology of the board's shape.
+     */
+    private Board(int rows, int cols, int numMines, MSGame controller, Random random, TopologyKind kind) {
+        this.random = random;
+        this.topology = Topology.of(kind, rows, cols);
         this.rows = rows;
         this.cols = cols;
         this.numMines = numMines;
-        this.controller = controller;
+        this.shown = controller != null;
         this.initialized = false;
         this.gameOver = false;
+        this.won = false;
         this.flagCount = 0;
+        this.history = new UndoHistory(Constants.UNDO_LIMIT);
+        this.mineReveal = null;
+        this.fillMode = FillMode.REGIONS;
+        this.regions = null;
+        this.spares = new Cell[3][0];
+        this.spareCounts = new int[3];
+        this.fillQueue = null;
+        this.fillMarks = null;
+        this.fillMark = 0;
+        this.stream = null;
+        this.events = null;
+        this.mineLayout = new BitBoard(rows, cols);
+        this.clues = new byte[rows * cols];
+        this.blocked = new long[BoardSnapshot.wordsFor(rows, cols)];
         this.grid = new Cell[rows][cols];
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
@@ -38,6 +97,44 @@ public class Board {
             }
         }
     }
+    /**
+     * This method is a constructor that builds a board from a snapshot, giving it the same mines, revealed cells
+     * and flags.
+     */
+    public Board(BoardSnapshot snapshot, MSGame controller) {
+        this(snapshot.getRows(), snapshot.getCols(), snapshot.getNumMines(), controller);
+        this.restore(snapshot);
+    }
+    /**
+     * This method clears the board for a new game of the same size in place, keeping the cells, the mine layout and
+     * the undo history that are already allocated. The random generator keeps going, so the next game gets new mines.
+     */
+    public void reset() {
+        this.stopMineReveal();
+        this.history.clear();
+        this.mineLayout.clear();
+        Arrays.fill(this.clues, (byte) 0);
+        Arrays.fill(this.blocked, 0);
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.cols; j++) {
+                this.grid[i][j].clear();
+            }
+        }
+        this.flagCount = 0;
+        this.revealCount = 0;
+        this.initialized = false;
+        this.gameOver = false;
+        this.won = false;
+        this.publishAll();
+    }
+    /**
+     * This method clears the board in place like reset and restarts the random generator from the given seed, so the
+     * next game is the same as a new board made with that seed.
+     */
+    public void reset(long seed) {
+        this.random.setSeed(seed);
+        this.reset();
+    }
     /**
      * This method sets up the board by placing mines and assigning the numbers to necessary tiles by delegating
      * them to the methods placeMines and calculateNumbers, and also marks whether the board is already initialized.
@@ -46,82 +143,320 @@ public class Board {
         if (this.initialized){
             return;
         }
+        long start = System.nanoTime();
         this.placeMines(firstRow, firstCol);
         this.calculateNumbers();
         this.initialized = true;
+        Metrics.BOARD_INITIALIZE.stop(start);
     }
     /**
      * This method places mines on the board according to how many is needed as indicated by the numMines variable,
      * and does so through random number generation while ensuring that the very first click is safe by delegating
-     * to the isExcluded method.
+     * to the isExcluded method. The mines are stored in the bit layout until calculateNumbers makes the cells.
      */
     private void placeMines(int excludeRow, int excludeCol) {
+        this.mineLayout.clear();
         int placed = 0;
+        int first = excludeRow * this.cols + excludeCol;
         while (placed < this.numMines) {
-            int i = (int) (Math.random() * this.rows);
-            int j = (int) (Math.random() * this.cols);
-            if (this.isExcluded(i, j, excludeRow, excludeCol)) {
+            int i = this.random.nextInt(this.rows);
+            int j = this.random.nextInt(this.cols);
+            if (this.isExcluded(i * this.cols + j, first)) {
                 continue;
             }
-            if (!this.grid[i][j].isMine()) {
-                this.grid[i][j] = new MineCell(i, j);
+            if (!this.mineLayout.isMine(i, j)) {
+                this.mineLayout.setMine(i, j);
                 placed++;
             }
         }
     }
     /**
-     * This method calculates whether the randomly generated coordinate would be violating the rule of
-     * the first click being safe by calculating the magnitude of the row and column difference.
+     * This method reveals the cell at the given coordinate as if it was clicked, placing the mines first if this is
+     * the first click. Flagged cells are not revealed. On a very large square board an empty cell is filled with the
+     * ParallelFloodFill, except in QUEUE mode, which is kept as the plain serial fill the others are checked against.
+     */
+    public void reveal(int row, int col) {
+        if (this.gameOver) {
+            return;
+        }
+        this.initialize(row, col);
+        Cell cell = this.getCell(row, col);
+        if (cell != null && !cell.isFlagged()) {
+            long start = System.nanoTime();
+            int before = this.revealCount;
+            if (cell.isZero() && !cell.isRevealed() && this.rows * this.cols >= Constants.PARALLEL_FILL_MIN_CELLS
+                    && this.fillMode != FillMode.QUEUE && this.topology.getKind() == TopologyKind.SQUARE) {
+                // a whole opening is revealed from its labels, and only a cut into it needs the parallel fill
+                if (this.fillMode == FillMode.REGIONS && this.revealOpening(row, col)) {
+                    this.checkWin();
+                }
+                else {
+                    this.revealRegion(row, col);
+                }
+            }
+            else {
+                cell.reveal(this);
+            }
+            Metrics.BOARD_REVEAL.stop(start, this.revealCount - before);
+            Metrics.BOARD_REVEAL_CELLS.record(this.revealCount - before);
+        }
+    }
+    /**
+     * This method makes a chord on the revealed number at the given coordinate, revealing every hidden cell around it
+     * that is not flagged. It only does so when the number of flags around the cell equals its number, so a wrong
+     * flag makes the chord reveal a mine just like it does in the original game.
+     */
+    public void chord(int row, int col) {
+        if (this.gameOver || !this.initialized) {
+            return;
+        }
+        Cell cell = this.getCell(row, col);
+        if (cell == null || !cell.isRevealed() || cell.getClueValue() <= 0) {
+            return;
+        }
+        int index = row * this.cols + col;
+        int start = this.topology.getStart(index);
+        int end = this.topology.getEnd(index);
+        int flags = 0;
+        for (int k = start; k < end; k++) {
+            int n = this.topology.getNeighbor(k);
+            if (this.grid[n / this.cols][n % this.cols].isFlagged()) {
+                flags++;
+            }
+        }
+        if (flags != cell.getClueValue()) {
+            return;
+        }
+        for (int k = start; k < end; k++) {
+            int n = this.topology.getNeighbor(k);
+            Cell neighbor = this.grid[n / this.cols][n % this.cols];
+            if (!neighbor.isRevealed() && !neighbor.isFlagged()) {
+                this.reveal(n / this.cols, n % this.cols);
+            }
+        }
+    }
+    /**
+     * This method reveals the whole opening of the empty cell at the given coordinate at once from the openings
+     * labeled when the numbers were calculated. It only does so when no cell of the opening is flagged and none of
+     * its empty cells are revealed, since then a flood fill would reveal exactly the opening, and otherwise returns
+     * false without changing anything.
+     */
+    public boolean revealOpening(int row, int col) {
+        if (!this.initialized) {
+            return false;
+        }
+        int region = this.regions.getRegion(row * this.cols + col);
+        if (region < 0) {
+            return false;
+        }
+        int start = this.regions.getStart(region);
+        int end = this.regions.getEnd(region);
+        for (int k = start; k < end; k++) {
+            int index = this.regions.getCell(k);
+            Cell cell = this.grid[index / this.cols][index % this.cols];
+            if (cell.isFlagged() || (cell.isZero() && cell.isRevealed())) {
+                return false;
+            }
+        }
+        for (int k = start; k < end; k++) {
+            int index = this.regions.getCell(k);
+            Cell cell = this.grid[index / this.cols][index % this.cols];
+            if (!cell.isRevealed()) {
+                cell.setRevealed(true);
+                this.updateVisual(index / this.cols, index % this.cols);
+            }
+        }
+        return true;
+    }
+    /**
+     * This method starts a fill that queues cells by their row major index and returns the queue to put them in. The
+     * queue and the marks of which cells were queued are made on the first fill and kept by the board, and each fill
+     * moves to a new mark, so a reveal neither allocates nor clears anything the size of the board.
+     */
+    int[] beginFill() {
+        if (this.fillMarks == null) {
+            this.fillMarks = new int[this.rows * this.cols];
+            this.fillQueue = new int[16];
+        }
+        this.fillMark++;
+        if (this.fillMark == Integer.MAX_VALUE) {
+            Arrays.fill(this.fillMarks, 0);
+            this.fillMark = 1;
+        }
+        return this.fillQueue;
+    }
+    /**
+     * This method marks the cell with the given row major index as queued in the current fill, returning false if
+     * it already was.
+     */
+    boolean markQueued(int index) {
+        if (this.fillMarks[index] == this.fillMark) {
+            return false;
+        }
+        this.fillMarks[index] = this.fillMark;
+        return true;
+    }
+    /**
+     * This method doubles the fill queue, keeping what it holds, and returns it. A cell is queued at most once per
+     * fill, so the queue never needs to be larger than the board.
      */
-    private boolean isExcluded(int i, int j, int excludeRow, int excludeCol) {
-        int rowDiff = Math.abs(i - excludeRow);
-        int colDiff = Math.abs(j - excludeCol);
-        return rowDiff <= 1 && colDiff <= 1;
+    int[] growFillQueue() {
+        this.fillQueue = Arrays.copyOf(this.fillQueue, Math.min(this.fillQueue.length * 2, this.rows * this.cols));
+        return this.fillQueue;
+    }
+    /**
+     * This method reveals the region around an empty cell on a very large board, finding the cells with a
+     * ParallelFloodFill and then revealing them, which reveals the same cells as EmptyCell does. The fill is given
+     * the bitset of revealed and flagged cells that the board keeps up to date, and only the cells it revealed are
+     * visited afterwards, so no step walks the whole board on one thread.
+     */
+    private void revealRegion(int row, int col) {
+        ParallelFloodFill fill = new ParallelFloodFill(this.rows, this.cols, this.clues, this.blocked);
+        fill.fill(row, col);
+        fill.forEachRevealed((int index) -> {
+            this.grid[index / this.cols][index % this.cols].setRevealed(true);
+            this.updateVisual(index / this.cols, index % this.cols);
+        });
+        this.checkWin();
+    }
+    /**
+     * This method calculates whether the randomly generated cell would be violating the rule of the first click
+     * being safe, which keeps the first cell and its neighbors free of mines.
+     */
+    private boolean isExcluded(int cell, int first) {
+        return cell == first || this.topology.isNeighbor(first, cell);
     }
     /**
      * This method assigns the numbers for each number cell by counting the number of mines in its neighbor
-     * coordinates.
+     * coordinates, which the bit layout does a whole row at a time on a square board, then labels the openings and
+     * puts a mine, number or empty cell at every coordinate, reusing the cells and labels of the last game.
      */
     private void calculateNumbers() {
+        if (this.topology.getKind() == TopologyKind.SQUARE) {
+            this.mineLayout.computeClues(this.clues);
+        }
+        else {
+            for (int cell = 0; cell < this.clues.length; cell++) {
+                int count = 0;
+                for (int k = this.topology.getStart(cell); k < this.topology.getEnd(cell); k++) {
+                    int n = this.topology.getNeighbor(k);
+                    if (this.mineLayout.isMine(n / this.cols, n % this.cols)) {
+                        count++;
+                    }
+                }
+                this.clues[cell] = (byte) count;
+            }
+        }
+        if (this.regions == null) {
+            this.regions = new ZeroRegions(this.topology, this.clues, this.mineLayout);
+        }
+        else {
+            this.regions.relabel(this.topology, this.clues, this.mineLayout);
+        }
+        // a cell left from an earlier game is kept when it is already the right kind, and the others are set aside
+        // and moved to where their kind is needed, so new cells are only made when the new game has more of a kind
+        int moved = 0;
         for (int i = 0; i < this.rows; i++) {
             for (int j = 0; j < this.cols; j++) {
-                if (!this.grid[i][j].isMine()) {
-                    int count = 0;
-                    int[][] neighbors = this.getNeighborCoords(i, j);
-                    for (int[] coord : neighbors) {
-                        if (this.grid[coord[0]][coord[1]].isMine()) {
-                            count++;
-                        }
-                    }
-                    if (count > 0) {
-                        this.grid[i][j] = new NumberCell(i, j, count);
-                    }
-                    else {
-                        this.grid[i][j] = new EmptyCell(i, j);
-                    }
+                Cell cell = this.grid[i][j];
+                cell.clear();
+                int kind = kindOf(cell);
+                if (kind != this.kindAt(i, j)) {
+                    this.setAside(kind, cell);
+                    this.grid[i][j] = null;
+                    moved++;
+                }
+                else if (kind == NUMBER) {
+                    ((NumberCell) cell).setClueValue(this.clues[i * this.cols + j]);
                 }
             }
         }
+        for (int i = 0; i < this.rows && moved > 0; i++) {
+            for (int j = 0; j < this.cols; j++) {
+                if (this.grid[i][j] == null) {
+                    this.grid[i][j] = this.reuseCell(i, j);
+                    moved--;
+                }
+            }
+        }
+        for (int kind = 0; kind < this.spareCounts.length; kind++) {
+            Arrays.fill(this.spares[kind], 0, this.spareCounts[kind], null);
+            this.spareCounts[kind] = 0;
+        }
+    }
+    /**
+     * This method returns whether the given cell is a mine, number or empty cell.
+     */
+    private static int kindOf(Cell cell) {
+        if (cell instanceof MineCell) {
+            return MINE;
+        }
+        else if (cell instanceof EmptyCell) {
+            return EMPTY;
+        }
+        return NUMBER;
+    }
+    /**
+     * This method returns whether the cell at the given coordinate should be a mine, number or empty cell in the
+     * current layout.
+     */
+    private int kindAt(int row, int col) {
+        if (this.mineLayout.isMine(row, col)) {
+            return MINE;
+        }
+        else if (this.clues[row * this.cols + col] > 0) {
+            return NUMBER;
+        }
+        return EMPTY;
+    }
+    /**
+     * This method sets aside a cell of the given kind that is not needed where it was.
+     */
+    private void setAside(int kind, Cell cell) {
+        if (this.spareCounts[kind] == this.spares[kind].length) {
+            this.spares[kind] = Arrays.copyOf(this.spares[kind], this.spareCounts[kind] * 2 + 16);
+        }
+        this.spares[kind][this.spareCounts[kind]] = cell;
+        this.spareCounts[kind]++;
+    }
+    /**
+     * This method moves a set aside cell of the kind needed at the given coordinate there and gives it its number,
+     * making a new cell only when none of that kind is left over.
+     */
+    private Cell reuseCell(int row, int col) {
+        int kind = this.kindAt(row, col);
+        int count = this.clues[row * this.cols + col];
+        if (this.spareCounts[kind] == 0) {
+            if (kind == MINE) {
+                return new MineCell(row, col);
+            }
+            else if (kind == NUMBER) {
+                return new NumberCell(row, col, count);
+            }
+            return new EmptyCell(row, col);
+        }
+        this.spareCounts[kind]--;
+        Cell cell = this.spares[kind][this.spareCounts[kind]];
+        this.spares[kind][this.spareCounts[kind]] = null;
+        cell.moveTo(row, col);
+        if (kind == NUMBER) {
+            ((NumberCell) cell).setClueValue(count);
+        }
+        return cell;
     }
     /**
-     * This method calculates neighboring coordinates around a given coordinate in the parameters while making sure
-     * it is within the valid grid of coordinates.
+     * This method returns the coordinates of the neighbors of a given coordinate in the parameters, read from the
+     * board's topology. Hot loops should walk the topology itself, which needs no arrays to be made.
      */
     public int[][] getNeighborCoords(int row, int col) {
-        ArrayList<int[]> neighbors = new ArrayList<>();
-        for (int i = -1; i <= 1; i++) {
-            for (int j = -1; j <= 1; j++) {
-                if (i == 0 && j == 0) {
-                    continue;
-                }
-                int ii = row + i;
-                int jj = col + j;
-                if (this.isValid(ii, jj)) {
-                    neighbors.add(new int[]{ii, jj});
-                }
-            }
+        int cell = row * this.cols + col;
+        int start = this.topology.getStart(cell);
+        int[][] neighbors = new int[this.topology.getEnd(cell) - start][];
+        for (int k = 0; k < neighbors.length; k++) {
+            int n = this.topology.getNeighbor(start + k);
+            neighbors[k] = new int[]{n / this.cols, n % this.cols};
         }
-        return neighbors.toArray(new int[0][]);
+        return neighbors;
     }
     /**
      * This method checks for if the row and column taken as parameters is within the edges.
@@ -130,47 +465,87 @@ public class Board {
         return row >= 0 && row < this.rows && col >= 0 && col < this.cols;
     }
     /**
-     * This method marks the game as over and lost, then revealing all mines.
+     * This method marks the game as over and lost, then revealing all mines. It does nothing if the game is already
+     * over.
      */
     public void gameOver() {
+        if (this.gameOver) {
+            return;
+        }
         this.gameOver = true;
-        this.revealAllMines();
-        this.controller.onGameOver(false);
+        this.won = false;
+        if (this.shown) {
+            this.revealAllMines();
+        }
+        this.publish(GameEventType.LOST, -1, -1);
     }
     /**
-     * This method checks to see if the game is won by seeing if there are any unrevealed mines left on the board,
-     * and if all are revealed then it marks the game as over and won.
+     * This method checks to see if the game is won by seeing if every cell that is not a mine is revealed, and if
+     * so it marks the game as over and won. A game that is already over is left as it is. Only safe cells are
+     * revealed while the game goes on, so the count of revealed cells answers this without looking at the board.
      */
     public void checkWin() {
-        for (int i = 0; i < this.rows; i++) {
-            for (int j = 0; j < this.cols; j++) {
-                Cell cell = this.grid[i][j];
-                if (!cell.isMine() && !cell.isRevealed()) {
-                    return;
-                }
-            }
+        if (this.gameOver) {
+            return;
+        }
+        long start = System.nanoTime();
+        boolean won = this.initialized && this.revealCount == this.rows * this.cols - this.numMines;
+        Metrics.BOARD_CHECK_WIN.stop(start);
+        if (!won) {
+            return;
         }
         this.gameOver = true;
-        this.controller.onGameOver(true);
+        this.won = true;
+        this.publish(GameEventType.WON, -1, -1);
     }
     /**
-     * This method reveals all the mines in the board from left to right to make a wave like animation using a
-     * timeline.
+     * This method reveals all the mines in the board from left to right to make a wave like animation, driven by a
+     * single animation that walks the mines in the order of the sweep.
      */
     private void revealAllMines() {
-        for (int col = 0; col < this.cols; col++) {
-            int currentCol = col;
-            Timeline timeline = new Timeline(new KeyFrame(
-                    Duration.millis(col * 50),
-                    e -> {
-                        for (int row = 0; row < this.rows; row++) {
-                            if (this.grid[row][currentCol].isMine()) {
-                                this.grid[row][currentCol].reveal(this);
-                            }
-                        }
-                    }
-            ));
-            timeline.play();
+        this.stopMineReveal();
+        this.mineReveal = new MineRevealAnimation(this);
+        this.mineReveal.start();
+    }
+    /**
+     * This method reveals a mine of a lost game for the mine reveal animation, putting it on the event ring and
+     * telling the stream like any other revealed cell, but without recording it in the undo history since undoing
+     * the move that lost the game hides every mine anyway.
+     */
+    void revealMine(int row, int col) {
+        Cell cell = this.grid[row][col];
+        if (cell.isFlagged() || cell.isRevealed()) {
+            return;
+        }
+        cell.setRevealed(true);
+        this.revealCount++;
+        this.publish(GameEventType.REVEALED, row, col);
+        this.updateBlocked(row, col);
+        if (this.stream != null) {
+            this.stream.cellChanged(row, col);
+        }
+    }
+    /**
+     * This method sends the mines the animation revealed in its last frame to the spectators.
+     */
+    void publishMines() {
+        if (this.stream != null) {
+            this.stream.publish();
+        }
+    }
+    /**
+     * This method returns whether the mine reveal animation is still revealing mines.
+     */
+    public boolean isRevealingMines() {
+        return this.mineReveal != null && !this.mineReveal.isFinished();
+    }
+    /**
+     * This method stops the mine reveal animation if it is still running.
+     */
+    public void stopMineReveal() {
+        if (this.mineReveal != null) {
+            this.mineReveal.stop();
+            this.mineReveal = null;
         }
     }
     /**
@@ -182,6 +557,9 @@ public class Board {
             return;
         }
         Cell cell = this.grid[row][col];
+        if (cell.isRevealed()) {
+            return;
+        }
         boolean wasFlagged = cell.isFlagged();
         if (this.flagCount != this.numMines) {
             cell.toggleFlag();
@@ -195,16 +573,219 @@ public class Board {
         else if (cell.isFlagged()) {
             this.flagCount++;
         }
+        if (wasFlagged != cell.isFlagged()) {
+            this.history.record(row * this.cols + col, BoardDelta.FLAG);
+        }
         this.updateVisual(row, col);
-        this.controller.updateMineCounter();
     }
 
     /**
-     * This method tells the game controller that the cell needs updating and delegates the actual process to the
-     * MSGame.java class.
+     * This method records that the cell at the given coordinate was revealed or had its flag changed, putting an
+     * event on the event ring for the game controller and anything else reading it to draw or act on.
      */
     public void updateVisual(int row, int col) {
-        this.controller.updateCell(row, col);
+        if (this.grid[row][col].isRevealed()) {
+            this.history.record(row * this.cols + col, BoardDelta.REVEAL);
+            this.revealCount++;
+            this.publish(GameEventType.REVEALED, row, col);
+        }
+        else {
+            this.publish(GameEventType.FLAGGED, row, col);
+        }
+        this.updateBlocked(row, col);
+        if (this.stream != null) {
+            this.stream.cellChanged(row, col);
+        }
+    }
+    /**
+     * This method keeps the bit of the cell at the given coordinate in the bitset of revealed and flagged cells, which
+     * a flood fill cannot pass through, in step with the cell.
+     */
+    private void updateBlocked(int row, int col) {
+        int index = row * this.cols + col;
+        Cell cell = this.grid[row][col];
+        if (cell.isRevealed() || cell.isFlagged()) {
+            this.blocked[index >>> 6] |= 1L << index;
+        }
+        else {
+            this.blocked[index >>> 6] &= ~(1L << index);
+        }
+    }
+    /**
+     * This method puts an event on the event ring if anything has asked for the ring.
+     */
+    private void publish(GameEventType type, int row, int col) {
+        if (this.events != null) {
+            this.events.publish(type, row, col);
+        }
+    }
+    /**
+     * This method starts recording a player move so that every cell it changes can be undone later.
+     */
+    public void beginMove() {
+        this.history.begin(this.flagCount, this.gameOver);
+    }
+    /**
+     * This method finishes recording the current player move and sends the cells it changed to the spectators.
+     */
+    public void endMove() {
+        this.history.commit();
+        if (this.stream != null) {
+            this.stream.publish();
+        }
+    }
+    /**
+     * This method tells the event readers and the spectators that the whole board changed, for changes that were
+     * made without redrawing each cell.
+     */
+    private void publishAll() {
+        this.publish(GameEventType.REDRAW, -1, -1);
+        if (this.stream != null) {
+            this.stream.invalidate();
+            this.stream.publish();
+        }
+    }
+    /**
+     * This method undoes the most recent move by hiding the cells it revealed and toggling back the flags it
+     * changed, and if the move lost the game it also hides the mines that were revealed. Every cell it changes is put
+     * on the event ring and sent to the spectators so only those cells are redrawn. It returns false if there was
+     * nothing to undo.
+     */
+    public boolean undo() {
+        BoardDelta delta = this.history.pop();
+        if (delta == null) {
+            return false;
+        }
+        this.stopMineReveal();
+        for (int k = delta.size() - 1; k >= 0; k--) {
+            int index = delta.getIndex(k);
+            Cell cell = this.grid[index / this.cols][index % this.cols];
+            if (delta.getKind(k) == BoardDelta.REVEAL) {
+                cell.setRevealed(false);
+                this.revealCount--;
+                this.cellUndone(GameEventType.HIDDEN, index / this.cols, index % this.cols);
+            }
+            else {
+                cell.toggleFlag();
+                this.cellUndone(GameEventType.FLAGGED, index / this.cols, index % this.cols);
+            }
+        }
+        if (this.gameOver && !delta.wasGameOverBefore()) {
+            for (int i = 0; i < this.rows; i++) {
+                for (int j = 0; j < this.cols; j++) {
+                    if (this.grid[i][j].isMine() && this.grid[i][j].isRevealed()) {
+                        this.grid[i][j].setRevealed(false);
+                        this.revealCount--;
+                        this.cellUndone(GameEventType.HIDDEN, i, j);
+                    }
+                }
+            }
+        }
+        this.flagCount = delta.getFlagCountBefore();
+        this.gameOver = delta.wasGameOverBefore();
+        this.won = this.won && this.gameOver;
+        if (this.stream != null) {
+            this.stream.publish();
+        }
+        return true;
+    }
+    /**
+     * This method tells the event readers and the spectators about a cell that an undo changed, without recording it
+     * in the undo history.
+     */
+    private void cellUndone(GameEventType type, int row, int col) {
+        this.updateBlocked(row, col);
+        this.publish(type, row, col);
+        if (this.stream != null) {
+            this.stream.cellChanged(row, col);
+        }
+    }
+    /**
+     * This method returns whether there is a move that can be undone.
+     */
+    public boolean canUndo() {
+        return this.history.canUndo();
+    }
+    /**
+     * This method captures the whole state of the board as a snapshot, packing the mines, revealed cells and flags
+     * into bitsets together with the given elapsed time.
+     */
+    public BoardSnapshot snapshot(long elapsedMillis) {
+        int words = BoardSnapshot.wordsFor(this.rows, this.cols);
+        long[] mines = new long[words];
+        long[] revealed = new long[words];
+        long[] flagged = new long[words];
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.cols; j++) {
+                Cell cell = this.grid[i][j];
+                int index = i * this.cols + j;
+                if (this.mineLayout.isMine(i, j)) {
+                    BoardSnapshot.setBit(mines, index);
+                }
+                if (cell.isRevealed()) {
+                    BoardSnapshot.setBit(revealed, index);
+                }
+                if (cell.isFlagged()) {
+                    BoardSnapshot.setBit(flagged, index);
+                }
+            }
+        }
+        return new BoardSnapshot(this.rows, this.cols, this.numMines, mines, revealed, flagged,
+                this.flagCount, this.initialized, this.gameOver, elapsedMillis);
+    }
+    /**
+     * This method replaces the state of the board with the state stored in a snapshot of the same size, placing its
+     * mines, recalculating the numbers, and restoring the revealed cells and flags along with how many cells are
+     * revealed. The undo history is cleared.
+     */
+    public void restore(BoardSnapshot snapshot) {
+        if (snapshot.getRows() != this.rows || snapshot.getCols() != this.cols) {
+            throw new IllegalArgumentException("Snapshot does not match the board size");
+        }
+        this.stopMineReveal();
+        this.history.clear();
+        this.numMines = snapshot.getNumMines();
+        this.mineLayout.clear();
+        if (snapshot.isInitialized()) {
+            for (int i = 0; i < this.rows; i++) {
+                for (int j = 0; j < this.cols; j++) {
+                    if (snapshot.isMine(i, j)) {
+                        this.mineLayout.setMine(i, j);
+                    }
+                }
+            }
+            this.calculateNumbers();
+        }
+        else {
+            for (int i = 0; i < this.rows; i++) {
+                for (int j = 0; j < this.cols; j++) {
+                    this.grid[i][j].clear();
+                }
+            }
+        }
+        this.revealCount = 0;
+        Arrays.fill(this.blocked, 0);
+        boolean mineRevealed = false;
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.cols; j++) {
+                Cell cell = this.grid[i][j];
+                if (snapshot.isRevealed(i, j)) {
+                    cell.setRevealed(true);
+                    this.revealCount++;
+                    mineRevealed = mineRevealed || cell.isMine();
+                }
+                else if (snapshot.isFlagged(i, j)) {
+                    cell.toggleFlag();
+                }
+                this.updateBlocked(i, j);
+            }
+        }
+        this.flagCount = snapshot.getFlagCount();
+        this.initialized = snapshot.isInitialized();
+        this.gameOver = snapshot.isGameOver();
+        // a snapshot does not say how its game ended, but only a lost game has a mine revealed
+        this.won = this.gameOver && !mineRevealed;
+        this.publishAll();
     }
     /**
      * This method returns a cell on the grid at the given coordinate in the parameters.
@@ -235,6 +816,34 @@ public class Board {
      * This method is a getter method for number of flags on the board.
      */
     public int getFlags() { return this.flagCount; }
+    /**
+     * This method is a getter method for how many cells of the board are revealed.
+     */
+    public int getRevealCount() { return this.revealCount; }
+    /**
+     * This method is a getter method for the ring of events about this board, making it the first time it is asked
+     * for so boards that nothing reads never pay for it.
+     */
+    public GameEventRing getEvents() {
+        if (this.events == null) {
+            this.events = new GameEventRing(Constants.EVENT_RING_SIZE);
+        }
+        return this.events;
+    }
+    /**
+     * This method is a getter method for the stream that sends the board to spectators, making it the first time it
+     * is asked for so boards nobody watches never pay for it.
+     */
+    public BoardStream getStream() {
+        if (this.stream == null) {
+            this.stream = new BoardStream(this);
+        }
+        return this.stream;
+    }
+    /**
+     * This method is a getter method for which cells of the board are neighbors.
+     */
+    public Topology getTopology() { return this.topology; }
     /**
      * This method is a getter method for whether the board has been initialized.
      */
@@ -243,4 +852,25 @@ public class Board {
      * This method is a getter method for if the game is still running or not.
      */
     public boolean isGameOver() { return this.gameOver; }
+    /**
+     * This method is a getter method for whether the game is over and was won rather than lost.
+     */
+    public boolean isWon() { return this.won; }
+    /**
+     * This method is a getter method for how empty cells reveal the region around them.
+     */
+    public FillMode getFillMode() { return this.fillMode; }
+    /**
+     * This method is a setter method for how empty cells reveal the region around them.
+     */
+    public void setFillMode(FillMode fillMode) { this.fillMode = fillMode; }
+    /**
+     * This method is a getter method for the number of openings on the board, which is 0 before it is initialized.
+     */
+    public int getOpeningCount() { return this.initialized ? this.regions.getOpeningCount() : 0; }
+    /**
+     * This method is a getter method for the 3BV of the board, the least number of clicks needed to clear it, which
+     * is 0 before it is initialized.
+     */
+    public int get3BV() { return this.initialized ? this.regions.get3BV() : 0; }
 }
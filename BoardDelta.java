@@ -0,0 +1,64 @@
+package minesweeper;
+
+/**
+ * This class stores the changes made to a board by a single move, which is every cell that was revealed or had its
+ * flag toggled along with the flag count and game over state from before the move, so the move can be undone
+ * without copying the whole grid.
+ */
+class BoardDelta {
+    static final int REVEAL = 0;
+    static final int FLAG = 1;
+    private int[] changes;
+    private int size;
+    private int flagCountBefore;
+    private boolean gameOverBefore;
+
+    public BoardDelta(int flagCountBefore, boolean gameOverBefore) {
+        this.changes = new int[4];
+        this.size = 0;
+        this.flagCountBefore = flagCountBefore;
+        this.gameOverBefore = gameOverBefore;
+    }
+    /**
+     * This method records that the cell at the given index was revealed or flagged, growing the array if needed.
+     */
+    public void add(int index, int kind) {
+        if (this.size == this.changes.length) {
+            int[] bigger = new int[this.size * 2];
+            System.arraycopy(this.changes, 0, bigger, 0, this.size);
+            this.changes = bigger;
+        }
+        this.changes[this.size] = (index << 1) | kind;
+        this.size++;
+    }
+    /**
+     * This getter method returns how many changes were recorded.
+     */
+    public int size() {
+        return this.size;
+    }
+    /**
+     * This getter method returns the cell index of the change at the given position.
+     */
+    public int getIndex(int i) {
+        return this.changes[i] >>> 1;
+    }
+    /**
+     * This getter method returns whether the change at the given position was a reveal or a flag toggle.
+     */
+    public int getKind(int i) {
+        return this.changes[i] & 1;
+    }
+    /**
+     * This getter method returns the flag count from before the move.
+     */
+    public int getFlagCountBefore() {
+        return this.flagCountBefore;
+    }
+    /**
+     * This getter method returns whether the game was over before the move.
+     */
+    public boolean wasGameOverBefore() {
+        return this.gameOverBefore;
+    }
+}
@@ -0,0 +1,149 @@
+package minesweeper;
+
+/**
+ * This class is what a spectator keeps of a streamed board. It applies the frames of a BoardStream in order and
+ * holds the view of every cell, which is its number if it is revealed or one of the HIDDEN, FLAG and MINE views of
+ * BoardStream. Delta frames are only applied when they follow the last frame applied, so a spectator that missed a
+ * frame keeps showing the last good state until the next keyframe arrives.
+ */
+public class BoardMirror {
+    private int rows;
+    private int cols;
+    private byte[] views;
+    private int frameNumber;
+    private boolean synced;
+    private int position;
+
+    /**
+     * This method is the constructor which starts with no board until the first keyframe arrives.
+     */
+    public BoardMirror() {
+        this.rows = 0;
+        this.cols = 0;
+        this.views = new byte[0];
+        this.frameNumber = 0;
+        this.synced = false;
+        this.position = 0;
+    }
+    /**
+     * This method applies one frame and returns whether it was applied. A delta that does not follow the last
+     * frame applied is skipped, and it throws an IllegalArgumentException if the frame is not a frame at all.
+     */
+    public boolean apply(byte[] frame) {
+        this.position = 1;
+        if (frame.length == 0) {
+            throw new IllegalArgumentException("Empty frame");
+        }
+        if (frame[0] == BoardStream.KEYFRAME) {
+            this.applyKeyframe(frame);
+            return true;
+        }
+        if (frame[0] != BoardStream.DELTA) {
+            throw new IllegalArgumentException("Unknown frame type " + frame[0]);
+        }
+        int number = this.readVarint(frame);
+        if (!this.synced || number != this.frameNumber + 1) {
+            this.synced = false;
+            return false;
+        }
+        int count = this.readVarint(frame);
+        int index = -1;
+        for (int k = 0; k < count; k++) {
+            index += this.readVarint(frame) + 1;
+            if (index >= this.views.length) {
+                throw new IllegalArgumentException("Delta cell is outside the board");
+            }
+            this.views[index] = this.readView(frame);
+        }
+        this.frameNumber = number;
+        return true;
+    }
+    /**
+     * This method replaces the whole view with the runs of a keyframe.
+     */
+    private void applyKeyframe(byte[] frame) {
+        int number = this.readVarint(frame);
+        int newRows = this.readVarint(frame);
+        int newCols = this.readVarint(frame);
+        if (newRows != this.rows || newCols != this.cols) {
+            this.views = new byte[newRows * newCols];
+        }
+        int index = 0;
+        while (index < this.views.length) {
+            int run = this.readVarint(frame);
+            byte view = this.readView(frame);
+            if (run <= 0 || index + run > this.views.length) {
+                throw new IllegalArgumentException("Keyframe runs do not cover the board");
+            }
+            for (int k = 0; k < run; k++) {
+                this.views[index + k] = view;
+            }
+            index += run;
+        }
+        this.rows = newRows;
+        this.cols = newCols;
+        this.frameNumber = number;
+        this.synced = true;
+    }
+    /**
+     * This method reads one value written with seven bits per byte.
+     */
+    private int readVarint(byte[] frame) {
+        int value = 0;
+        int shift = 0;
+        while (true) {
+            if (this.position >= frame.length || shift > 28) {
+                throw new IllegalArgumentException("Frame ends in the middle of a value");
+            }
+            byte b = frame[this.position];
+            this.position++;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+    /**
+     * This method reads the view of one cell.
+     */
+    private byte readView(byte[] frame) {
+        if (this.position >= frame.length) {
+            throw new IllegalArgumentException("Frame ends in the middle of a cell");
+        }
+        byte view = frame[this.position];
+        this.position++;
+        return view;
+    }
+    /**
+     * This method returns the view of the cell at the given coordinate.
+     */
+    public byte getView(int row, int col) {
+        return this.views[row * this.cols + col];
+    }
+    /**
+     * This getter method returns the number of rows, which is 0 before the first keyframe.
+     */
+    public int getRows() {
+        return this.rows;
+    }
+    /**
+     * This getter method returns the number of columns, which is 0 before the first keyframe.
+     */
+    public int getCols() {
+        return this.cols;
+    }
+    /**
+     * This getter method returns the number of the last frame applied.
+     */
+    public int getFrameNumber() {
+        return this.frameNumber;
+    }
+    /**
+     * This getter method returns whether the mirror is showing the current state, which is false before the first
+     * keyframe and after a missed frame until the next keyframe.
+     */
+    public boolean isSynced() {
+        return this.synced;
+    }
+}
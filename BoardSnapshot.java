@@ -0,0 +1,186 @@
+package minesweeper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * This class is an unchangeable copy of the state of a board, storing the mine layout and the revealed and flagged
+ * cells as packed bitsets along with the flag count and the time elapsed, so that a game can be saved to a file,
+ * resumed later, or copied into a new board.
+ */
+public class BoardSnapshot {
+    private static final int FILE_VERSION = 1;
+    private final int rows;
+    private final int cols;
+    private final int numMines;
+    private final long[] mines;
+    private final long[] revealed;
+    private final long[] flagged;
+    private final int flagCount;
+    private final boolean initialized;
+    private final boolean gameOver;
+    private final long elapsedMillis;
+
+    /**
+     * This method is the constructor which stores the dimensions, the packed bitsets, and the remaining game state.
+     * The bitsets are owned by the snapshot afterwards and are never changed.
+     */
+    BoardSnapshot(int rows, int cols, int numMines, long[] mines, long[] revealed, long[] flagged,
+                  int flagCount, boolean initialized, boolean gameOver, long elapsedMillis) {
+        this.rows = rows;
+        this.cols = cols;
+        this.numMines = numMines;
+        this.mines = mines;
+        this.revealed = revealed;
+        this.flagged = flagged;
+        this.flagCount = flagCount;
+        this.initialized = initialized;
+        this.gameOver = gameOver;
+        this.elapsedMillis = elapsedMillis;
+    }
+    /**
+     * This method returns how many longs are needed to store one bit for every cell of a board of the given size.
+     */
+    static int wordsFor(int rows, int cols) {
+        return (rows * cols + 63) >>> 6;
+    }
+    /**
+     * This method sets the bit of the given index in a packed bitset.
+     */
+    static void setBit(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+    /**
+     * This method returns whether the bit of the given index in a packed bitset is set.
+     */
+    static boolean getBit(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+    /**
+     * This method returns how many bits are set in a packed bitset.
+     */
+    private static int bitCount(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+    /**
+     * This method returns whether the cell at the given coordinate is a mine.
+     */
+    public boolean isMine(int row, int col) {
+        return getBit(this.mines, row * this.cols + col);
+    }
+    /**
+     * This method returns whether the cell at the given coordinate was revealed.
+     */
+    public boolean isRevealed(int row, int col) {
+        return getBit(this.revealed, row * this.cols + col);
+    }
+    /**
+     * This method returns whether the cell at the given coordinate was flagged.
+     */
+    public boolean isFlagged(int row, int col) {
+        return getBit(this.flagged, row * this.cols + col);
+    }
+    /**
+     * This method writes the snapshot to the given file in a compact binary form.
+     */
+    public void save(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(FILE_VERSION);
+            out.writeInt(this.rows);
+            out.writeInt(this.cols);
+            out.writeInt(this.numMines);
+            out.writeInt(this.flagCount);
+            out.writeBoolean(this.initialized);
+            out.writeBoolean(this.gameOver);
+            out.writeLong(this.elapsedMillis);
+            for (int i = 0; i < this.mines.length; i++) {
+                out.writeLong(this.mines[i]);
+                out.writeLong(this.revealed[i]);
+                out.writeLong(this.flagged[i]);
+            }
+        }
+    }
+    /**
+     * This method reads a snapshot that was written by the save method, throwing an IOException if the file is not
+     * a saved board. The size and counts are checked before anything is made from them, so a damaged file is
+     * reported like a missing one instead of failing the game that resumes it.
+     */
+    public static BoardSnapshot load(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_VERSION) {
+                throw new IOException("Unsupported save file version");
+            }
+            int rows = in.readInt();
+            int cols = in.readInt();
+            int numMines = in.readInt();
+            int flagCount = in.readInt();
+            boolean initialized = in.readBoolean();
+            boolean gameOver = in.readBoolean();
+            long elapsedMillis = in.readLong();
+            if (rows <= 0 || cols <= 0 || (long) rows * cols > Constants.SAVE_MAX_CELLS) {
+                throw new IOException("Invalid board size");
+            }
+            if (numMines < 0 || numMines >= rows * cols) {
+                throw new IOException("Invalid mine count");
+            }
+            if (flagCount < 0 || flagCount > numMines) {
+                throw new IOException("Invalid flag count");
+            }
+            int words = wordsFor(rows, cols);
+            long[] mines = new long[words];
+            long[] revealed = new long[words];
+            long[] flagged = new long[words];
+            for (int i = 0; i < words; i++) {
+                mines[i] = in.readLong();
+                revealed[i] = in.readLong();
+                flagged[i] = in.readLong();
+            }
+            if (bitCount(flagged) != flagCount) {
+                throw new IOException("Flags do not match the flag count");
+            }
+            if (initialized && bitCount(mines) != numMines) {
+                throw new IOException("Mines do not match the mine count");
+            }
+            return new BoardSnapshot(rows, cols, numMines, mines, revealed, flagged,
+                    flagCount, initialized, gameOver, elapsedMillis);
+        }
+    }
+    /**
+     * This method is a getter method for the number of rows.
+     */
+    public int getRows() { return this.rows; }
+    /**
+     * This method is a getter method for the number of columns.
+     */
+    public int getCols() { return this.cols; }
+    /**
+     * This method is a getter method for the number of mines.
+     */
+    public int getNumMines() { return this.numMines; }
+    /**
+     * This method is a getter method for the number of flags that were placed.
+     */
+    public int getFlagCount() { return this.flagCount; }
+    /**
+     * This method is a getter method for whether the mines had been placed yet.
+     */
+    public boolean isInitialized() { return this.initialized; }
+    /**
+     * This method is a getter method for whether the game was already over.
+     */
+    public boolean isGameOver() { return this.gameOver; }
+    /**
+     * This method is a getter method for the time elapsed in the game in milliseconds.
+     */
+    public long getElapsedMillis() { return this.elapsedMillis; }
+}
@@ -0,0 +1,311 @@
+package minesweeper;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * This class streams the state of a board to any number of spectators as a series of small frames. The board tells
+ * the stream about every cell it redraws, and once a move is finished the stream sends a delta frame holding only
+ * the cells whose view changed since the last frame, each written as the gap from the previous changed cell and its
+ * new view. Every few frames, or whenever it would be smaller than the delta, a keyframe holding the whole board as
+ * runs of equal views is sent instead, so a spectator that missed a frame catches up at the next keyframe. A
+ * spectator that joins late is sent a keyframe of its own right away. The frames are plain bytes, so they can be
+ * handed to a view in the same program or written to a socket, and BoardMirror turns them back into a board view.
+ * The number of runs in the sent views is kept as they change, which bounds the size of a keyframe without scanning
+ * the board, so the board is only measured when a delta falls between the bounds.
+ */
+public class BoardStream {
+    public static final byte HIDDEN = 9;
+    public static final byte FLAG = 10;
+    public static final byte MINE = 11;
+    public static final byte KEYFRAME = 'K';
+    public static final byte DELTA = 'D';
+    private Board board;
+    private byte[] sent;
+    private boolean[] pending;
+    private int[] changed;
+    private int changedCount;
+    private boolean keyframeNeeded;
+    private int frameNumber;
+    private int framesSinceKeyframe;
+    private int framesSinceSizeCheck;
+    private int runs;
+    private List<Consumer<byte[]>> spectators;
+    private long bytesSent;
+    private long framesSent;
+
+    /**
+     * This method is the constructor which starts streaming the given board. The first frame sent is a keyframe.
+     */
+    public BoardStream(Board board) {
+        this.board = board;
+        int size = board.getRows() * board.getCols();
+        this.sent = new byte[size];
+        this.pending = new boolean[size];
+        this.changed = new int[size];
+        this.changedCount = 0;
+        this.keyframeNeeded = true;
+        this.frameNumber = 0;
+        this.framesSinceKeyframe = 0;
+        this.framesSinceSizeCheck = 0;
+        this.runs = 1;
+        // a spectator may be removed, or remove another, while a frame is being sent to them
+        this.spectators = new CopyOnWriteArrayList<>();
+        this.bytesSent = 0;
+        this.framesSent = 0;
+    }
+    /**
+     * This method adds a spectator, which is called with every frame from now on, and sends it a keyframe of the
+     * board as it is so it can start showing the game straight away.
+     */
+    public void addSpectator(Consumer<byte[]> spectator) {
+        this.publish();
+        this.spectators.add(spectator);
+        spectator.accept(this.encodeKeyframe());
+    }
+    /**
+     * This method stops sending frames to a spectator.
+     */
+    public void removeSpectator(Consumer<byte[]> spectator) {
+        this.spectators.remove(spectator);
+    }
+    /**
+     * This method notes that the cell at the given coordinate was redrawn, so it is checked in the next frame.
+     */
+    public void cellChanged(int row, int col) {
+        int index = row * this.board.getCols() + col;
+        if (!this.pending[index]) {
+            this.pending[index] = true;
+            this.changed[this.changedCount] = index;
+            this.changedCount++;
+        }
+    }
+    /**
+     * This method makes the next frame a keyframe, for changes to the board that were not reported cell by cell,
+     * such as an undo or a restart.
+     */
+    public void invalidate() {
+        this.keyframeNeeded = true;
+    }
+    /**
+     * This method sends a frame to every spectator if anything changed since the last one.
+     */
+    public void publish() {
+        byte[] frame = this.nextFrame();
+        if (frame == null) {
+            return;
+        }
+        for (Consumer<byte[]> spectator : this.spectators) {
+            spectator.accept(frame);
+        }
+    }
+    /**
+     * This method makes the next frame from the cells reported since the last one, or returns null if none of them
+     * look different. The frame is a keyframe when one is needed, when enough deltas were sent since the last
+     * keyframe, or when a keyframe would take fewer bytes.
+     */
+    public byte[] nextFrame() {
+        Arrays.sort(this.changed, 0, this.changedCount);
+        int count = 0;
+        for (int k = 0; k < this.changedCount; k++) {
+            int index = this.changed[k];
+            this.pending[index] = false;
+            byte view = this.viewOf(index);
+            if (view != this.sent[index]) {
+                this.changed[count] = index;
+                count++;
+            }
+        }
+        this.changedCount = 0;
+        if (count == 0 && !this.keyframeNeeded) {
+            return null;
+        }
+        this.frameNumber++;
+        byte[] frame = null;
+        if (!this.keyframeNeeded && this.framesSinceKeyframe + 1 < Constants.STREAM_KEYFRAME_INTERVAL) {
+            frame = this.encodeDelta(count);
+            this.framesSinceKeyframe++;
+        }
+        if (frame == null || this.keyframeSmaller(frame.length)) {
+            this.runs = 1;
+            for (int index = 0; index < this.sent.length; index++) {
+                this.sent[index] = this.viewOf(index);
+                if (index > 0 && this.sent[index] != this.sent[index - 1]) {
+                    this.runs++;
+                }
+            }
+            frame = this.encodeKeyframe();
+            this.framesSinceKeyframe = 0;
+            this.keyframeNeeded = false;
+        }
+        this.bytesSent += frame.length;
+        this.framesSent++;
+        return frame;
+    }
+    /**
+     * This method writes a delta frame of the first count changed cells, which are sorted, and remembers their views
+     * as sent.
+     */
+    private byte[] encodeDelta(int count) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 + count * 2);
+        out.write(DELTA);
+        writeVarint(out, this.frameNumber);
+        writeVarint(out, count);
+        int previous = -1;
+        for (int k = 0; k < count; k++) {
+            int index = this.changed[k];
+            byte view = this.viewOf(index);
+            writeVarint(out, index - previous - 1);
+            out.write(view);
+            this.setSent(index, view);
+            previous = index;
+        }
+        return out.toByteArray();
+    }
+    /**
+     * This method writes a keyframe of the views that were last sent, numbered as the last frame.
+     */
+    private byte[] encodeKeyframe() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        out.write(KEYFRAME);
+        writeVarint(out, this.frameNumber);
+        writeVarint(out, this.board.getRows());
+        writeVarint(out, this.board.getCols());
+        int start = 0;
+        while (start < this.sent.length) {
+            int end = this.runEnd(start);
+            writeVarint(out, end - start);
+            out.write(this.sent[start]);
+            start = end;
+        }
+        return out.toByteArray();
+    }
+    /**
+     * This method remembers the view sent for the cell with the given row major index, keeping the number of runs
+     * right by counting the borders with its neighbors before and after the change.
+     */
+    private void setSent(int index, byte view) {
+        this.runs -= this.bordersAround(index);
+        this.sent[index] = view;
+        this.runs += this.bordersAround(index);
+    }
+    /**
+     * This method returns how many of the two cells next to the given one in row major order were last sent with a
+     * different view.
+     */
+    private int bordersAround(int index) {
+        int borders = 0;
+        if (index > 0 && this.sent[index - 1] != this.sent[index]) {
+            borders++;
+        }
+        if (index + 1 < this.sent.length && this.sent[index + 1] != this.sent[index]) {
+            borders++;
+        }
+        return borders;
+    }
+    /**
+     * This method returns whether a keyframe of the views that were last sent would take fewer bytes than a delta of
+     * the given size. Every run takes at least two bytes, and since the runs add up to the board only a few can be
+     * long enough to need more, which bounds the keyframe from both sides. Only a delta between the bounds needs the
+     * keyframe measured, and that is done every STREAM_SIZE_CHECK_INTERVAL such frames, sending the delta otherwise.
+     */
+    private boolean keyframeSmaller(int deltaSize) {
+        int lower = 1 + varintSize(this.frameNumber) + varintSize(this.board.getRows())
+                + varintSize(this.board.getCols()) + 2 * this.runs;
+        if (deltaSize <= lower) {
+            return false;
+        }
+        long upper = lower;
+        // a run needs another byte of length for every seven bits past the first seven
+        for (int shift = 7; shift < 32 && (this.sent.length >>> shift) > 0; shift += 7) {
+            upper += Math.min(this.runs, this.sent.length >>> shift);
+        }
+        if (deltaSize > upper) {
+            return true;
+        }
+        this.framesSinceSizeCheck++;
+        if (this.framesSinceSizeCheck < Constants.STREAM_SIZE_CHECK_INTERVAL) {
+            return false;
+        }
+        this.framesSinceSizeCheck = 0;
+        return deltaSize > this.keyframeSize();
+    }
+    /**
+     * This method returns how many bytes a keyframe of the views that were last sent takes, without writing it.
+     */
+    private int keyframeSize() {
+        int size = 1 + varintSize(this.frameNumber) + varintSize(this.board.getRows())
+                + varintSize(this.board.getCols());
+        int start = 0;
+        while (start < this.sent.length) {
+            int end = this.runEnd(start);
+            size += varintSize(end - start) + 1;
+            start = end;
+        }
+        return size;
+    }
+    /**
+     * This method returns the index just past the run of equal views that were last sent starting at the given one.
+     */
+    private int runEnd(int start) {
+        int end = start + 1;
+        while (end < this.sent.length && this.sent[end] == this.sent[start]) {
+            end++;
+        }
+        return end;
+    }
+    /**
+     * This method returns how a spectator sees the cell with the given row major index: its number if it is
+     * revealed, or HIDDEN, FLAG or MINE.
+     */
+    private byte viewOf(int index) {
+        Cell cell = this.board.getCell(index / this.board.getCols(), index % this.board.getCols());
+        if (cell.isFlagged()) {
+            return FLAG;
+        }
+        if (!cell.isRevealed()) {
+            return HIDDEN;
+        }
+        if (cell.isMine()) {
+            return MINE;
+        }
+        return (byte) Math.max(0, cell.getClueValue());
+    }
+    /**
+     * This method writes a value that is not negative using seven bits per byte, so small values take one byte.
+     */
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+    /**
+     * This method returns how many bytes writeVarint uses for the given value.
+     */
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+    /**
+     * This getter method returns how many bytes of frames were made so far, not counting the keyframes sent to
+     * spectators when they joined.
+     */
+    public long getBytesSent() {
+        return this.bytesSent;
+    }
+    /**
+     * This getter method returns how many frames were made so far.
+     */
+    public long getFramesSent() {
+        return this.framesSent;
+    }
+}
@@ -32,6 +32,21 @@ public abstract class Cell {
         }
         this.flagged = !this.flagged;
     }
+    /**
+     * This method hides the cell and removes its flag so it can be used again in a new game.
+     */
+    public void clear() {
+        this.revealed = false;
+        this.flagged = false;
+    }
+    /**
+     * This method moves the cell to the given coordinate, so a cell that is no longer needed where it was can be
+     * used again somewhere else on the board in a new game.
+     */
+    public void moveTo(int row, int col) {
+        this.row = row;
+        this.col = col;
+    }
     /**
      * This method is an abstract method that tells whether the current cell has no surrounding mines.
      */
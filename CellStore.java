@@ -0,0 +1,28 @@
+package minesweeper;
+
+/**
+ * This interface is the storage a LazyBoard keeps the revealed and flagged state of its cells in, one byte per cell,
+ * so the same board logic can run on chunks kept in memory or on tiles of a file mapped into memory.
+ */
+public interface CellStore {
+    /**
+     * This method returns the state of the cell at the given coordinate, which is 0 if it was never set.
+     */
+    byte get(int row, int col);
+    /**
+     * This method sets the state of the cell at the given coordinate.
+     */
+    void set(int row, int col, byte value);
+    /**
+     * This getter method returns how many chunks or tiles of cells are held in memory right now.
+     */
+    int getTilesInMemory();
+    /**
+     * This method makes sure every change so far has been written out.
+     */
+    void flush();
+    /**
+     * This method releases the storage. The store cannot be used afterwards.
+     */
+    void close();
+}
@@ -0,0 +1,151 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class keeps the chunks of a LazyBoard that have been touched. The most recently used chunks stay in memory
+ * and the least recently used ones are written to a folder on disk once there are too many, being read back the next
+ * time they are needed. Chunks that were never touched are never made at all.
+ */
+class ChunkCache implements CellStore {
+    private LinkedHashMap<Long, LazyChunk> chunks;
+    private Set<Long> onDisk;
+    private Path folder;
+    private int capacity;
+
+    /**
+     * This method is the constructor which makes an empty cache that keeps at most the given number of chunks in
+     * memory and spills the rest into a new temporary folder.
+     */
+    public ChunkCache(int capacity) throws IOException {
+        this.chunks = new LinkedHashMap<>(16, 0.75f, true);
+        this.onDisk = new HashSet<>();
+        this.folder = Files.createTempDirectory("minesweeper-chunks");
+        this.capacity = capacity;
+    }
+    /**
+     * This method returns the key of the chunk at the given chunk row and column.
+     */
+    static long keyOf(int chunkRow, int chunkCol) {
+        return ((long) chunkRow << 32) | (chunkCol & 0xFFFFFFFFL);
+    }
+    /**
+     * This method returns the stored state of the cell at the given coordinate, which is 0 for cells in chunks that
+     * were never touched.
+     */
+    @Override
+    public byte get(int row, int col) {
+        LazyChunk chunk = this.get(keyOf(row / LazyChunk.SIZE, col / LazyChunk.SIZE), false);
+        if (chunk == null) {
+            return 0;
+        }
+        return chunk.get(row % LazyChunk.SIZE, col % LazyChunk.SIZE);
+    }
+    /**
+     * This method sets the stored state of the cell at the given coordinate, making its chunk if needed.
+     */
+    @Override
+    public void set(int row, int col, byte value) {
+        LazyChunk chunk = this.get(keyOf(row / LazyChunk.SIZE, col / LazyChunk.SIZE), true);
+        chunk.set(row % LazyChunk.SIZE, col % LazyChunk.SIZE, value);
+    }
+    /**
+     * This method does nothing, since the spilled chunks only live as long as the cache.
+     */
+    @Override
+    public void flush() {
+    }
+    /**
+     * This method returns the chunk with the given key, reading it back from disk if it was spilled. If it was
+     * never touched it returns null, unless create is true in which case a new empty chunk is made.
+     */
+    public LazyChunk get(long key, boolean create) {
+        LazyChunk chunk = this.chunks.get(key);
+        if (chunk != null) {
+            return chunk;
+        }
+        if (this.onDisk.contains(key)) {
+            try {
+                chunk = new LazyChunk(Files.readAllBytes(this.fileOf(key)));
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        else if (create) {
+            chunk = new LazyChunk();
+        }
+        else {
+            return null;
+        }
+        this.chunks.put(key, chunk);
+        this.evict();
+        return chunk;
+    }
+    /**
+     * This method writes the least recently used chunks to disk until no more than the capacity are in memory. A
+     * chunk that did not change since it was read back is already on disk and is simply dropped.
+     */
+    private void evict() {
+        Iterator<Map.Entry<Long, LazyChunk>> it = this.chunks.entrySet().iterator();
+        while (this.chunks.size() > this.capacity && it.hasNext()) {
+            Map.Entry<Long, LazyChunk> entry = it.next();
+            LazyChunk chunk = entry.getValue();
+            if (chunk.isDirty() || !this.onDisk.contains(entry.getKey())) {
+                try {
+                    Files.write(this.fileOf(entry.getKey()), chunk.getState());
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                this.onDisk.add(entry.getKey());
+            }
+            it.remove();
+        }
+    }
+    /**
+     * This method returns the file a chunk is spilled to.
+     */
+    private Path fileOf(long key) {
+        return this.folder.resolve("chunk_" + (key >> 32) + "_" + (int) key + ".bin");
+    }
+    /**
+     * This getter method returns how many chunks are in memory.
+     */
+    @Override
+    public int getTilesInMemory() {
+        return this.chunks.size();
+    }
+    /**
+     * This getter method returns how many chunks were ever touched, in memory or on disk.
+     */
+    public int getChunksTouched() {
+        int count = this.onDisk.size();
+        for (Long key : this.chunks.keySet()) {
+            if (!this.onDisk.contains(key)) {
+                count++;
+            }
+        }
+        return count;
+    }
+    /**
+     * This method forgets every chunk and deletes the folder they were spilled to.
+     */
+    @Override
+    public void close() {
+        this.chunks.clear();
+        for (Long key : this.onDisk) {
+            this.fileOf(key).toFile().delete();
+        }
+        this.onDisk.clear();
+        this.folder.toFile().delete();
+    }
+}
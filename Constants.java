@@ -14,6 +14,53 @@ public class Constants {
     public static final int HARD_COLS = 30;
     public static final int HARD_MINES = 99;
     public static final int CELL_SIZE = 30;
+    public static final int MINI_CELL_SIZE = 12;
+    public static final int[] VERSUS_OPPONENTS = {1, 4, 8, 16, 24};
+    public static final int AI_MIN_DELAY_MILLIS = 500;
+    public static final int AI_MAX_DELAY_MILLIS = 1500;
+    public static final int AI_RENDER_INTERVAL_MILLIS = 100;
+    public static final int VERSUS_AREA_WIDTH = 820;
+    public static final int VERSUS_AREA_HEIGHT = 480;
+    public static final int UNDO_LIMIT = 200;
+    public static final int CLOCK_REFRESH_MILLIS = 100;
+    public static final long NO_BEST_TIME = Long.MAX_VALUE;
+    public static final int LAZY_CHUNK_SIZE = 64;
+    public static final int LAZY_CHUNKS_IN_MEMORY = 1024;
+    public static final int MAPPED_TILES_PER_SEGMENT = 256;
+    public static final int MAPPED_SEGMENTS_IN_MEMORY = 256;
+    public static final int FILL_TILE_SIZE = 256;
+    public static final int PARALLEL_FILL_MIN_CELLS = 250_000;
+    public static final int MINE_REVEAL_COLUMN_MILLIS = 50;
+    public static final int MINE_REVEAL_FRAME_BUDGET = 256;
+    public static final int STREAM_KEYFRAME_INTERVAL = 64;
+    public static final int STREAM_SIZE_CHECK_INTERVAL = 8;
+    public static final int EVENT_RING_SIZE = 1 << 14;
+    public static final int SERVER_PORT = 7070;
+    public static final int SERVER_BACKLOG = 4096;
+    public static final int SERVER_MAX_LINE = 256;
+    public static final int SERVER_MAX_CELLS = 1_000_000;
+    public static final long SERVER_TOTAL_CELLS = 8_000_000;
+    public static final int SERVER_MAX_PENDING_BYTES = 4 << 20;
+    public static final int SERVER_MAX_QUEUED_COMMANDS = 256;
+    public static final int SERVER_ANSWER_BATCH = 4096;
+    public static final int SERVER_MIN_WORKERS = 4;
+    public static final double HINT_MIN_RISK = 0.8;
+    public static final double AI_FLAG_MIN_RISK = 0.99;
+    public static final int ENDGAME_MAX_UNKNOWNS = 40;
+    public static final int ENDGAME_MAX_NODES = 1 << 20;
+    public static final int FRONTIER_CACHE_CAPACITY = 1 << 16;
+    public static final int FRONTIER_CACHE_SEGMENTS = 16;
+    public static final int TOPOLOGY_CACHE_SIZE = 32;
+    public static final int TOPOLOGY_CACHE_MAX_CELLS = 1 << 14;
+    public static final int EXPORT_WINDOW = 9;
+    public static final int EXPORT_BATCH_RECORDS = 8192;
+    public static final long EXPORT_SHARD_BYTES = 256L << 20;
+    public static final double ANALYZER_GUESS_TOLERANCE = 0.05;
+    public static final int ANALYZER_READ_BUFFER = 1 << 20;
+    public static final int ANALYZER_MAX_CELLS = 1 << 20;
+    public static final int SAVE_MAX_CELLS = 1 << 20;
+    public static final int ANALYZER_MAX_MOVES = 1 << 18;
+    public static final int ANALYZER_MAX_LINE = 256 + ANALYZER_MAX_CELLS / 4 + ANALYZER_MAX_MOVES * 32;
     public static final String[] NUMBER_COLORS = {
             "",
             "#0000FF", //blue
@@ -1,7 +1,8 @@
 package minesweeper;
 
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
 /**
  * This class is an empty cell that inherits from the parent Cell class, and defines its methods in the context of
  * the current cell being an empty cell with no surrounding mines and nothing to display.
@@ -14,38 +15,139 @@ public class EmptyCell extends Cell {
         super(row, col);
     }
     /**
-     * This method is a BFS reveal method that stops upon reaching a border of number cells using a queue, adding
-     * all neighboring empty/zero cells to the queue and revealing them logically and graphically if they are
-     * not yet flagged/revealed.
+     * This method reveals this cell and the region around it, stopping at the border of number cells, using the fill
+     * mode chosen on the board, and then checks whether the game is won. Scanlines only follow the rows of a square
+     * board, so other topologies use the queue instead.
      */
     @Override
     public void reveal(Board board) {
         if (this.isFlagged() || this.isRevealed()) {
             return;
         }
-        Queue<int[]> queue = new LinkedList<>();
-        queue.add(new int[]{this.getRow(), this.getCol()});
-        while (!queue.isEmpty()) {
-            int[] coords = queue.poll();
-            int i = coords[0];
-            int j = coords[1];
-            Cell current = board.getCell(i, j);
-            if (current == null || current.isFlagged() || current.isRevealed()) {
+        boolean square = board.getTopology().getKind() == TopologyKind.SQUARE;
+        if (board.getFillMode() == FillMode.REGIONS && board.revealOpening(this.getRow(), this.getCol())) {
+            board.checkWin();
+            return;
+        }
+        if (board.getFillMode() != FillMode.QUEUE && square) {
+            this.revealScanline(board);
+        }
+        else {
+            this.revealQueue(board);
+        }
+        board.checkWin();
+    }
+    /**
+     * This method is a BFS reveal method that stops upon reaching a border of number cells using a queue, adding
+     * all neighboring empty/zero cells to the queue and revealing them logically and graphically if they are
+     * not yet flagged/revealed. The neighbors come from the board's topology and cells are queued by their row major
+     * index, each at most once, in a queue the board keeps between fills.
+     */
+    private void revealQueue(Board board) {
+        Topology topology = board.getTopology();
+        Cell[][] grid = board.getGrid();
+        int cols = board.getCols();
+        int[] queue = board.beginFill();
+        int head = 0;
+        int tail = 0;
+        int first = this.getRow() * cols + this.getCol();
+        queue[tail] = first;
+        tail++;
+        board.markQueued(first);
+        while (head < tail) {
+            int cell = queue[head];
+            head++;
+            Cell current = grid[cell / cols][cell % cols];
+            if (current.isFlagged() || current.isRevealed()) {
                 continue;
             }
             current.setRevealed(true);
-            board.updateVisual(i, j);
+            board.updateVisual(cell / cols, cell % cols);
             if (current.isZero()) {
-                int[][] neighbors = board.getNeighborCoords(i, j);
-                for (int[] n : neighbors) {
-                    Cell neighbor = board.getCell(n[0], n[1]);
-                    if (neighbor != null && !neighbor.isRevealed() && !neighbor.isFlagged()) {
-                        queue.add(new int[]{n[0], n[1]});
+                for (int k = topology.getStart(cell); k < topology.getEnd(cell); k++) {
+                    int n = topology.getNeighbor(k);
+                    Cell neighbor = grid[n / cols][n % cols];
+                    if (!neighbor.isRevealed() && !neighbor.isFlagged() && board.markQueued(n)) {
+                        if (tail == queue.length) {
+                            queue = board.growFillQueue();
+                        }
+                        queue[tail] = n;
+                        tail++;
                     }
                 }
             }
         }
-        board.checkWin();
+    }
+    /**
+     * This method is a scanline reveal method. Each empty cell taken from the stack is widened into the longest run
+     * of hidden empty cells in its row, which is revealed along with the cells on both ends, and then the rows above
+     * and below the run are scanned, revealing numbered cells and pushing one empty cell for each run of them. This
+     * reveals the same cells as the BFS while walking along rows and pushing far fewer cells.
+     */
+    private void revealScanline(Board board) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        Deque<int[]> stack = new ArrayDeque<>();
+        stack.push(new int[]{this.getRow(), this.getCol()});
+        while (!stack.isEmpty()) {
+            int[] coords = stack.pop();
+            int row = coords[0];
+            Cell current = board.getCell(row, coords[1]);
+            if (current.isFlagged() || current.isRevealed()) {
+                continue;
+            }
+            if (!current.isZero()) {
+                this.revealCell(board, current);
+                continue;
+            }
+            int left = coords[1];
+            while (left > 0 && this.isHiddenZero(board.getCell(row, left - 1))) {
+                left--;
+            }
+            int right = coords[1];
+            while (right < cols - 1 && this.isHiddenZero(board.getCell(row, right + 1))) {
+                right++;
+            }
+            for (int j = Math.max(0, left - 1); j <= Math.min(cols - 1, right + 1); j++) {
+                Cell cell = board.getCell(row, j);
+                if (!cell.isFlagged() && !cell.isRevealed()) {
+                    this.revealCell(board, cell);
+                }
+            }
+            for (int i = row - 1; i <= row + 1; i += 2) {
+                if (i < 0 || i >= rows) {
+                    continue;
+                }
+                boolean inRun = false;
+                for (int j = Math.max(0, left - 1); j <= Math.min(cols - 1, right + 1); j++) {
+                    Cell cell = board.getCell(i, j);
+                    if (cell.isFlagged() || cell.isRevealed()) {
+                        inRun = false;
+                    }
+                    else if (!cell.isZero()) {
+                        this.revealCell(board, cell);
+                        inRun = false;
+                    }
+                    else if (!inRun) {
+                        stack.push(new int[]{i, j});
+                        inRun = true;
+                    }
+                }
+            }
+        }
+    }
+    /**
+     * This method returns whether the given cell is an empty cell that can still be revealed.
+     */
+    private boolean isHiddenZero(Cell cell) {
+        return cell.isZero() && !cell.isFlagged() && !cell.isRevealed();
+    }
+    /**
+     * This method reveals a single cell logically and graphically.
+     */
+    private void revealCell(Board board, Cell cell) {
+        cell.setRevealed(true);
+        board.updateVisual(cell.getRow(), cell.getCol());
     }
     /**
      * This method overrides the parent isZero method by returning true since the empty cell has zero mines surrounding
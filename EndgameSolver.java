@@ -0,0 +1,316 @@
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class works out the exact mine probability of every hidden cell once only a few are left. Each hidden cell
+ * next to a revealed number is one bit of a long, and every number becomes a mask of the hidden cells around it and
+ * how many mines it still needs, so a layout is checked against a number with a single bit count. The search gives
+ * the frontier cells a value one at a time in an order that keeps neighbors together and drops a branch as soon as a
+ * number has too many mines or can no longer get enough. The hidden cells away from every number are not searched,
+ * since a frontier layout with k mines can be completed in exactly C(interior, remaining - k) ways, which is how the
+ * total number of mines left is taken into account. It returns null when there are more hidden cells than its
+ * threshold, when the search grows too large, or when the flags placed do not agree with the numbers.
+ */
+public class EndgameSolver {
+    private int maxUnknowns;
+
+    /**
+     * This method is the constructor which uses the default threshold of hidden cells.
+     */
+    public EndgameSolver() {
+        this(Constants.ENDGAME_MAX_UNKNOWNS);
+    }
+    /**
+     * This method is a constructor that only solves boards with at most the given number of hidden cells, which
+     * cannot be more than 64 since every hidden cell has to fit in a long. It throws an IllegalArgumentException if
+     * the threshold is out of range.
+     */
+    public EndgameSolver(int maxUnknowns) {
+        if (maxUnknowns < 0 || maxUnknowns > 64) {
+            throw new IllegalArgumentException("Threshold must be between 0 and 64: " + maxUnknowns);
+        }
+        this.maxUnknowns = maxUnknowns;
+    }
+    /**
+     * This class is the search over one board, which is its frontier cells as bits, the numbers as masks, and the
+     * counts of valid layouts by how many mines they put on the frontier.
+     */
+    private static class Search {
+        private int frontier;
+        private long[] masks;
+        private int[] need;
+        private int[][] cellConstraints;
+        private int remaining;
+        private int interior;
+        private long[] layouts;
+        private long[][] mineLayouts;
+        private long nodes;
+        private boolean aborted;
+
+        /**
+         * This method gives the frontier cell at the given depth each value that keeps every number around it
+         * possible, and counts each layout that is complete.
+         */
+        private void search(int depth, long config, int mines) {
+            this.nodes++;
+            if (this.nodes > Constants.ENDGAME_MAX_NODES
+                    || ((this.nodes & 0xFFF) == 0 && Thread.currentThread().isInterrupted())) {
+                this.aborted = true;
+                return;
+            }
+            if (depth == this.frontier) {
+                int rest = this.remaining - mines;
+                if (rest < 0 || rest > this.interior) {
+                    return;
+                }
+                this.layouts[mines]++;
+                long bits = config;
+                while (bits != 0) {
+                    this.mineLayouts[mines][Long.numberOfTrailingZeros(bits)]++;
+                    bits &= bits - 1;
+                }
+                return;
+            }
+            long assigned = depth == 63 ? -1L : (1L << (depth + 1)) - 1;
+            int left = this.frontier - depth - 1;
+            for (int value = 0; value <= 1 && !this.aborted; value++) {
+                long next = config | ((long) value << depth);
+                int nextMines = mines + value;
+                // the frontier and interior together must still be able to hold exactly the mines that are left
+                if (nextMines > this.remaining || nextMines + left + this.interior < this.remaining) {
+                    continue;
+                }
+                if (this.fits(depth, next, assigned)) {
+                    this.search(depth + 1, next, nextMines);
+                }
+            }
+        }
+        /**
+         * This method returns whether every number around the cell at the given depth can still get exactly the
+         * mines it needs from the layout so far.
+         */
+        private boolean fits(int depth, long config, long assigned) {
+            for (int c : this.cellConstraints[depth]) {
+                int have = Long.bitCount(config & this.masks[c]);
+                int open = Long.bitCount(this.masks[c] & ~assigned);
+                if (have > this.need[c] || have + open < this.need[c]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * This method returns the exact chance that each hidden cell is a mine, with NaN for cells that are not hidden,
+     * a half width of 0, and the number of frontier layouts as the sample count, or null if the board is not in an
+     * endgame this solver can handle.
+     */
+    public ProbabilityEstimate solve(Board board) {
+        if (board == null || !board.isInitialized() || board.isGameOver()) {
+            return null;
+        }
+        long start = System.nanoTime();
+        int rows = board.getRows();
+        int cols = board.getCols();
+        int[][] index = new int[rows][cols];
+        List<int[]> unknown = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                Cell cell = board.getCell(i, j);
+                index[i][j] = -1;
+                if (!cell.isRevealed() && !cell.isFlagged()) {
+                    if (unknown.size() == this.maxUnknowns) {
+                        return null;
+                    }
+                    index[i][j] = unknown.size();
+                    unknown.add(new int[]{i, j});
+                }
+            }
+        }
+        int remaining = board.getNumMines() - board.getFlags();
+        if (unknown.isEmpty() || remaining < 0 || remaining > unknown.size()) {
+            return null;
+        }
+        // one mask over the unknown cells for every number that touches them
+        List<Long> unknownMasks = new ArrayList<>();
+        List<Integer> needs = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                Cell cell = board.getCell(i, j);
+                if (!cell.isRevealed() || cell.isMine()) {
+                    continue;
+                }
+                int flagged = 0;
+                long mask = 0;
+                for (int[] n : board.getNeighborCoords(i, j)) {
+                    if (board.getCell(n[0], n[1]).isFlagged()) {
+                        flagged++;
+                    }
+                    else if (index[n[0]][n[1]] >= 0) {
+                        mask |= 1L << index[n[0]][n[1]];
+                    }
+                }
+                int need = Math.max(0, cell.getClueValue()) - flagged;
+                if (need < 0 || need > Long.bitCount(mask)) {
+                    return null;
+                }
+                if (mask != 0) {
+                    unknownMasks.add(mask);
+                    needs.add(need);
+                }
+            }
+        }
+        int[] order = frontierOrder(unknownMasks);
+        Search search = new Search();
+        search.frontier = order.length;
+        search.interior = unknown.size() - order.length;
+        search.remaining = remaining;
+        search.need = new int[needs.size()];
+        search.masks = new long[needs.size()];
+        int[] bitOf = new int[unknown.size()];
+        Arrays.fill(bitOf, -1);
+        for (int b = 0; b < order.length; b++) {
+            bitOf[order[b]] = b;
+        }
+        List<List<Integer>> byCell = new ArrayList<>();
+        for (int b = 0; b < order.length; b++) {
+            byCell.add(new ArrayList<>());
+        }
+        for (int c = 0; c < needs.size(); c++) {
+            search.need[c] = needs.get(c);
+            long bits = unknownMasks.get(c);
+            long mask = 0;
+            while (bits != 0) {
+                int b = bitOf[Long.numberOfTrailingZeros(bits)];
+                mask |= 1L << b;
+                bits &= bits - 1;
+            }
+            search.masks[c] = mask;
+            // a number is checked at every one of its cells, so a branch is dropped as early as possible
+            for (long m = mask; m != 0; m &= m - 1) {
+                byCell.get(Long.numberOfTrailingZeros(m)).add(c);
+            }
+        }
+        search.cellConstraints = new int[order.length][];
+        for (int b = 0; b < order.length; b++) {
+            List<Integer> list = byCell.get(b);
+            search.cellConstraints[b] = new int[list.size()];
+            for (int k = 0; k < list.size(); k++) {
+                search.cellConstraints[b][k] = list.get(k);
+            }
+        }
+        search.layouts = new long[order.length + 1];
+        search.mineLayouts = new long[order.length + 1][order.length];
+        search.search(0, 0L, 0);
+        if (search.aborted) {
+            Metrics.ENDGAME_SOLVE.stop(start);
+            return null;
+        }
+        ProbabilityEstimate estimate = this.toEstimate(board, unknown, order, search);
+        Metrics.ENDGAME_SOLVE.stop(start);
+        return estimate;
+    }
+    /**
+     * This method weighs the layouts found by how many ways the interior can hold the rest of the mines and turns
+     * the counts into probabilities, or returns null if no layout fits.
+     */
+    private ProbabilityEstimate toEstimate(Board board, List<int[]> unknown, int[] order, Search search) {
+        double[] weight = new double[search.frontier + 1];
+        double total = 0.0;
+        double interiorMines = 0.0;
+        long layouts = 0;
+        for (int k = 0; k <= search.frontier; k++) {
+            if (search.layouts[k] == 0) {
+                continue;
+            }
+            int rest = search.remaining - k;
+            weight[k] = choose(search.interior, rest);
+            total += search.layouts[k] * weight[k];
+            interiorMines += search.layouts[k] * weight[k] * rest;
+            layouts += search.layouts[k];
+        }
+        if (total == 0.0) {
+            return null;
+        }
+        int rows = board.getRows();
+        int cols = board.getCols();
+        double[][] probability = new double[rows][cols];
+        double[][] halfWidth = new double[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            Arrays.fill(probability[i], Double.NaN);
+            Arrays.fill(halfWidth[i], Double.NaN);
+        }
+        double interiorRisk = search.interior > 0 ? interiorMines / search.interior / total : 0.0;
+        boolean[] onFrontier = new boolean[unknown.size()];
+        for (int b = 0; b < order.length; b++) {
+            double mines = 0.0;
+            for (int k = 0; k <= search.frontier; k++) {
+                mines += search.mineLayouts[k][b] * weight[k];
+            }
+            int[] coord = unknown.get(order[b]);
+            probability[coord[0]][coord[1]] = mines / total;
+            halfWidth[coord[0]][coord[1]] = 0.0;
+            onFrontier[order[b]] = true;
+        }
+        for (int u = 0; u < unknown.size(); u++) {
+            if (!onFrontier[u]) {
+                int[] coord = unknown.get(u);
+                probability[coord[0]][coord[1]] = interiorRisk;
+                halfWidth[coord[0]][coord[1]] = 0.0;
+            }
+        }
+        return new ProbabilityEstimate(probability, halfWidth, layouts);
+    }
+    /**
+     * This method orders the unknown cells that touch a number so that cells sharing a number come one after the
+     * other, which lets the search check each number as early as possible.
+     */
+    private static int[] frontierOrder(List<Long> masks) {
+        long frontier = 0;
+        for (long mask : masks) {
+            frontier |= mask;
+        }
+        int[] order = new int[Long.bitCount(frontier)];
+        int size = 0;
+        long placed = 0;
+        int head = 0;
+        while (placed != frontier) {
+            if (head == size) {
+                long next = Long.lowestOneBit(frontier & ~placed);
+                placed |= next;
+                order[size] = Long.numberOfTrailingZeros(next);
+                size++;
+            }
+            long cell = 1L << order[head];
+            head++;
+            for (long mask : masks) {
+                if ((mask & cell) == 0) {
+                    continue;
+                }
+                for (long m = mask & ~placed; m != 0; m &= m - 1) {
+                    order[size] = Long.numberOfTrailingZeros(m);
+                    size++;
+                }
+                placed |= mask;
+            }
+        }
+        return order;
+    }
+    /**
+     * This method returns the number of ways to pick k things out of n as a double.
+     */
+    private static double choose(int n, int k) {
+        if (k < 0 || k > n) {
+            return 0.0;
+        }
+        double result = 1.0;
+        for (int i = 1; i <= Math.min(k, n - k); i++) {
+            result = result * (n - Math.min(k, n - k) + i) / i;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,13 @@
+package minesweeper;
+
+/**
+ * This enum lists the ways an empty cell can reveal the region around it. QUEUE reveals one cell at a time from a
+ * queue, and SCANLINE reveals whole runs of empty cells along a row at once and then scans the rows above and below.
+ * REGIONS reveals the opening that was labeled when the board was made in one go, using SCANLINE when flags or
+ * earlier reveals cut into the opening. On boards of at least PARALLEL_FILL_MIN_CELLS cells SCANLINE and the REGIONS
+ * fallback fill on the ParallelFloodFill instead, while QUEUE always stays serial. All of them reveal exactly the same
+ * cells.
+ */
+public enum FillMode {
+    QUEUE, SCANLINE, REGIONS
+}
@@ -0,0 +1,112 @@
+package minesweeper;
+
+import java.util.Random;
+
+/**
+ * This class is a command line check that every fill mode of EmptyCell reveals exactly the same cells as the queue
+ * reveal. It plays the same random clicks on seeded boards of random sizes, one board for each fill mode and some
+ * cells flagged to block the fill, and compares every cell after every click. It also checks that the 3BV of each
+ * board is no more than the number of cells that are not mines. Run it with the number of boards, for example
+ * "5000", and add "large" to play boards of at least PARALLEL_FILL_MIN_CELLS cells instead, where the fills of some
+ * modes run on the ParallelFloodFill and are checked against the serial queue, for example "10 large".
+ */
+public class FloodFillCheck {
+    private static final int MAX_SIZE = 60;
+    private static final int LARGE_SIZE = 1000;
+    private static final int CLICKS = 20;
+    private static final int LARGE_CLICKS = 200;
+
+    private FloodFillCheck() {
+    }
+    /**
+     * This method runs the check from the command line and exits with a nonzero status if any board differs.
+     */
+    public static void main(String[] args) {
+        int boards = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        boolean large = args.length > 1 && args[1].equals("large");
+        int minSize = large ? LARGE_SIZE / 2 : 1;
+        int maxSize = large ? LARGE_SIZE : MAX_SIZE;
+        int clicks = large ? LARGE_CLICKS : CLICKS;
+        FillMode[] modes = FillMode.values();
+        long[] nanos = new long[modes.length];
+        int revealed = 0;
+        for (int seed = 0; seed < boards; seed++) {
+            Random random = new Random(seed);
+            int rows = minSize + random.nextInt(maxSize - minSize + 1);
+            int cols = minSize + random.nextInt(maxSize - minSize + 1);
+            // leave room for the cells around the first click, which never hold mines
+            int mines = Math.min(random.nextInt(Math.max(1, rows * cols / 4)), Math.max(0, rows * cols - 9));
+            Board[] games = new Board[modes.length];
+            for (int m = 0; m < modes.length; m++) {
+                games[m] = new Board(rows, cols, mines, null, seed);
+                games[m].setFillMode(modes[m]);
+            }
+            for (int click = 0; click < clicks && !games[0].isGameOver(); click++) {
+                int row = random.nextInt(rows);
+                int col = random.nextInt(cols);
+                if (click > 0 && random.nextInt(4) == 0) {
+                    for (Board game : games) {
+                        game.toggleFlag(row, col);
+                    }
+                    if (!large) {
+                        continue;
+                    }
+                    // on a large board the cell next to the flag is clicked, so the flag cuts into its opening
+                    col = col + 1 < cols ? col + 1 : col - 1;
+                }
+                // large boards are played for more clicks, which only go on safe cells to keep the game going
+                if (large && click > 0 && games[0].getCell(row, col).isMine()) {
+                    continue;
+                }
+                for (int m = 0; m < modes.length; m++) {
+                    long start = System.nanoTime();
+                    games[m].reveal(row, col);
+                    nanos[m] += System.nanoTime() - start;
+                }
+                for (int m = 1; m < modes.length; m++) {
+                    String difference = compare(games[0], games[m]);
+                    if (difference != null) {
+                        System.out.printf("Board %d (%dx%d, %d mines) differs with %s after clicking %d,%d: %s%n",
+                                seed, rows, cols, mines, modes[m], row, col, difference);
+                        System.exit(1);
+                    }
+                }
+            }
+            int safe = rows * cols - games[0].getNumMines();
+            if (games[0].get3BV() > safe) {
+                System.out.printf("Board %d has a 3BV of %d but only %d safe cells%n", seed, games[0].get3BV(), safe);
+                System.exit(1);
+            }
+            for (Cell[] line : games[0].getGrid()) {
+                for (Cell cell : line) {
+                    if (cell.isRevealed()) {
+                        revealed++;
+                    }
+                }
+            }
+        }
+        System.out.printf("%d boards identical, %d cells revealed%n", boards, revealed);
+        for (int m = 0; m < modes.length; m++) {
+            System.out.printf("%-10s %8.1f ms%n", modes[m], nanos[m] / 1e6);
+        }
+    }
+    /**
+     * This method returns a description of the first cell that differs between the two boards, or null if they are
+     * the same.
+     */
+    private static String compare(Board a, Board b) {
+        if (a.isGameOver() != b.isGameOver()) {
+            return "game over differs";
+        }
+        for (int i = 0; i < a.getRows(); i++) {
+            for (int j = 0; j < a.getCols(); j++) {
+                Cell x = a.getCell(i, j);
+                Cell y = b.getCell(i, j);
+                if (x.isRevealed() != y.isRevealed() || x.isFlagged() != y.isFlagged()) {
+                    return "cell " + i + "," + j;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,257 @@
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class remembers what the numbers around a cell say about it, so that a situation seen before, such as the
+ * 1-2-1 and 1-2-2-1 patterns or a clue in a corner, is answered with a lookup instead of being worked out again. A
+ * situation is the 5x5 window around the cell, since the numbers next to the cell only touch cells inside it, with
+ * every cell of the window being off the board, hidden, flagged, or a revealed number. Windows are keyed by their
+ * Zobrist hash, which is the xor of a fixed random value for the state of each of its cells, and solved by trying
+ * every layout of the hidden cells that the numbers next to the center allow. The cache is split into segments that
+ * each keep their least recently used windows out once they are full, so one cache can be shared by every game and
+ * thread.
+ */
+public class FrontierCache {
+    public static final int SIZE = 5;
+    private static final int OFF = 0;
+    private static final int HIDDEN = 1;
+    private static final int FLAG = 2;
+    private static final int NUMBER = 3;
+    private static final int STATES = NUMBER + 9;
+    private static final long[][] ZOBRIST = new long[SIZE * SIZE][STATES];
+    private static final FrontierCache SHARED = new FrontierCache(Constants.FRONTIER_CACHE_CAPACITY);
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EEDL);
+        for (long[] values : ZOBRIST) {
+            for (int s = 0; s < STATES; s++) {
+                values[s] = random.nextLong();
+            }
+        }
+    }
+
+    private List<LinkedHashMap<Long, FrontierPattern>> segments;
+    private int segmentCapacity;
+    private LongAdder hits;
+    private LongAdder misses;
+
+    /**
+     * This method is the constructor which makes an empty cache that keeps at most about the given number of
+     * windows.
+     */
+    public FrontierCache(int capacity) {
+        this.segments = new ArrayList<>();
+        for (int s = 0; s < Constants.FRONTIER_CACHE_SEGMENTS; s++) {
+            this.segments.add(new LinkedHashMap<>(16, 0.75f, true));
+        }
+        this.segmentCapacity = Math.max(1, capacity / this.segments.size());
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+    /**
+     * This method returns the cache shared by every HintAI.
+     */
+    public static FrontierCache shared() {
+        return SHARED;
+    }
+    /**
+     * This method returns what the numbers next to the cell at the given coordinate say about the window around it,
+     * or null if there is no revealed number next to the cell or the board is not square, since the windows follow
+     * the usual eight neighbors.
+     */
+    public FrontierPattern lookup(Board board, int row, int col) {
+        if (board.getTopology().getKind() != TopologyKind.SQUARE) {
+            return null;
+        }
+        long hash = 0;
+        long low = 0;
+        long high = 0;
+        boolean numbered = false;
+        int[] states = new int[SIZE * SIZE];
+        for (int p = 0; p < states.length; p++) {
+            int dr = p / SIZE - SIZE / 2;
+            int dc = p % SIZE - SIZE / 2;
+            int state = stateOf(board.getCell(row + dr, col + dc));
+            states[p] = state;
+            hash ^= ZOBRIST[p][state];
+            if (p < 16) {
+                low |= (long) state << (p * 4);
+            }
+            else {
+                high |= (long) state << ((p - 16) * 4);
+            }
+            if (state >= NUMBER && Math.abs(dr) <= 1 && Math.abs(dc) <= 1) {
+                numbered = true;
+            }
+        }
+        if (!numbered) {
+            return null;
+        }
+        LinkedHashMap<Long, FrontierPattern> segment = this.segments.get((int) (hash >>> 33) % this.segments.size());
+        synchronized (segment) {
+            FrontierPattern pattern = segment.get(hash);
+            if (pattern != null && pattern.matches(low, high)) {
+                this.hits.increment();
+                Metrics.FRONTIER_HITS.add(1);
+                return pattern;
+            }
+        }
+        this.misses.increment();
+        Metrics.FRONTIER_MISSES.add(1);
+        FrontierPattern pattern = solve(states, low, high);
+        synchronized (segment) {
+            segment.put(hash, pattern);
+            Iterator<Map.Entry<Long, FrontierPattern>> it = segment.entrySet().iterator();
+            while (segment.size() > this.segmentCapacity && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        return pattern;
+    }
+    /**
+     * This method returns the state of a cell as it is stored in a window, with a revealed mine counted as a flag.
+     */
+    private static int stateOf(Cell cell) {
+        if (cell == null) {
+            return OFF;
+        }
+        if (cell.isFlagged() || (cell.isRevealed() && cell.isMine())) {
+            return FLAG;
+        }
+        if (!cell.isRevealed()) {
+            return HIDDEN;
+        }
+        return NUMBER + Math.max(0, cell.getClueValue());
+    }
+    /**
+     * This method works out the window by trying every layout of the hidden cells next to the numbers around the
+     * center and keeping the ones that give every one of those numbers exactly its count. If no layout fits, which
+     * only happens when a flag is wrong, nothing is said to be certain.
+     */
+    private static FrontierPattern solve(int[] states, long low, long high) {
+        int[] masks = new int[9];
+        int[] need = new int[9];
+        int count = 0;
+        int variables = 0;
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                int p = (dr + SIZE / 2) * SIZE + dc + SIZE / 2;
+                if (states[p] < NUMBER) {
+                    continue;
+                }
+                int mask = 0;
+                int flagged = 0;
+                for (int nr = dr - 1; nr <= dr + 1; nr++) {
+                    for (int nc = dc - 1; nc <= dc + 1; nc++) {
+                        int q = (nr + SIZE / 2) * SIZE + nc + SIZE / 2;
+                        if (states[q] == FLAG) {
+                            flagged++;
+                        }
+                        else if (states[q] == HIDDEN) {
+                            mask |= 1 << q;
+                        }
+                    }
+                }
+                if (mask != 0) {
+                    masks[count] = mask;
+                    need[count] = states[p] - NUMBER - flagged;
+                    variables |= mask;
+                    count++;
+                }
+            }
+        }
+        int[] cells = new int[Integer.bitCount(variables)];
+        for (int k = 0, bits = variables; bits != 0; k++, bits &= bits - 1) {
+            cells[k] = Integer.numberOfTrailingZeros(bits);
+        }
+        long[] mines = new long[SIZE * SIZE];
+        long layouts = search(cells, 0, 0, 0, Arrays.copyOf(masks, count), need, mines);
+        double[] probability = new double[SIZE * SIZE];
+        Arrays.fill(probability, Double.NaN);
+        int safeMask = 0;
+        int mineMask = 0;
+        if (layouts > 0) {
+            for (int cell : cells) {
+                probability[cell] = (double) mines[cell] / layouts;
+                if (mines[cell] == 0) {
+                    safeMask |= 1 << cell;
+                }
+                else if (mines[cell] == layouts) {
+                    mineMask |= 1 << cell;
+                }
+            }
+        }
+        return new FrontierPattern(low, high, safeMask, mineMask, probability);
+    }
+    /**
+     * This method gives each cell from the given one on a value that keeps every number possible, adds the mines of
+     * every complete layout to the counts, and returns how many layouts it found.
+     */
+    private static long search(int[] cells, int k, int layout, int assigned, int[] masks, int[] need, long[] mines) {
+        if (k == cells.length) {
+            for (int bits = layout; bits != 0; bits &= bits - 1) {
+                mines[Integer.numberOfTrailingZeros(bits)]++;
+            }
+            return 1;
+        }
+        int bit = 1 << cells[k];
+        int nowAssigned = assigned | bit;
+        long layouts = 0;
+        for (int value = 0; value <= 1; value++) {
+            int next = value == 0 ? layout : layout | bit;
+            boolean fits = true;
+            for (int c = 0; c < masks.length && fits; c++) {
+                if ((masks[c] & bit) == 0) {
+                    continue;
+                }
+                int have = Integer.bitCount(next & masks[c]);
+                int open = Integer.bitCount(masks[c] & ~nowAssigned);
+                fits = have <= need[c] && have + open >= need[c];
+            }
+            if (fits) {
+                layouts += search(cells, k + 1, next, nowAssigned, masks, need, mines);
+            }
+        }
+        return layouts;
+    }
+    /**
+     * This getter method returns how many lookups found their window in the cache.
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+    /**
+     * This getter method returns how many lookups had to work their window out.
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+    /**
+     * This method returns the share of lookups that found their window in the cache, or 0 before the first one.
+     */
+    public double getHitRate() {
+        long total = this.getHits() + this.getMisses();
+        return total == 0 ? 0.0 : (double) this.getHits() / total;
+    }
+    /**
+     * This method returns how many windows are kept right now.
+     */
+    public int size() {
+        int size = 0;
+        for (LinkedHashMap<Long, FrontierPattern> segment : this.segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,66 @@
+package minesweeper;
+
+/**
+ * This class is what the FrontierCache knows about one 5x5 window of the board, which is the cells the numbers
+ * around the center of the window say are certainly safe or certainly mines, and the share of the layouts allowed by
+ * those numbers that put a mine on each cell. Cells are numbered row by row from 0 in the top left corner to 24 in
+ * the bottom right, so the center is 12. The window it was solved for is kept packed in two longs so a lookup can
+ * make sure it found the same window and not just the same hash.
+ */
+public class FrontierPattern {
+    public static final int CENTER = 12;
+    private long low;
+    private long high;
+    private int safeMask;
+    private int mineMask;
+    private double[] probability;
+
+    /**
+     * This method is the constructor which stores the packed window and what was worked out for it, with NaN as the
+     * probability of cells that no number around the center touches.
+     */
+    public FrontierPattern(long low, long high, int safeMask, int mineMask, double[] probability) {
+        this.low = low;
+        this.high = high;
+        this.safeMask = safeMask;
+        this.mineMask = mineMask;
+        this.probability = probability;
+    }
+    /**
+     * This method returns whether this pattern was solved for the window packed into the given longs.
+     */
+    public boolean matches(long low, long high) {
+        return this.low == low && this.high == high;
+    }
+    /**
+     * This method returns whether the numbers around the center leave no way for the given cell to be a mine.
+     */
+    public boolean isSafe(int position) {
+        return (this.safeMask >>> position & 1) != 0;
+    }
+    /**
+     * This method returns whether the numbers around the center leave no way for the given cell not to be a mine.
+     */
+    public boolean isMine(int position) {
+        return (this.mineMask >>> position & 1) != 0;
+    }
+    /**
+     * This method returns the share of the layouts allowed by the numbers around the center that put a mine on the
+     * given cell, counting every layout the same, or NaN if no number around the center touches it.
+     */
+    public double getProbability(int position) {
+        return this.probability[position];
+    }
+    /**
+     * This getter method returns the cells that are certainly safe as bits of the window.
+     */
+    public int getSafeMask() {
+        return this.safeMask;
+    }
+    /**
+     * This getter method returns the cells that are certainly mines as bits of the window.
+     */
+    public int getMineMask() {
+        return this.mineMask;
+    }
+}
@@ -0,0 +1,452 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class is a command line tool that reads a log of recorded games, replays every move of every game and prints
+ * how each player plays: how often they win, how fast and how efficiently they clear the board, how much they guess,
+ * and the mistakes they make. Run it with the log, which MSGame writes to ".minesweeper_games.log" in the user's home
+ * folder, and optionally a file to write every mistake to, for example "games.log mistakes.tsv".
+ *
+ * A move is judged against the risk map HintAI had for the board right before it, which is exact in the endgame. A
+ * reveal or chord on a cell with any risk is a guess, and it is an unnecessary guess if a certainly safe cell was
+ * available, or a worse guess than needed if its risk was more than ANALYZER_GUESS_TOLERANCE above the safest hidden
+ * cell. A flag on a cell that is not a mine is a wrong flag. The first click of a game is never judged since the
+ * board is made around it.
+ *
+ * The log is split into ranges of bytes that are analyzed on every processor at once, each range reading its own part
+ * of the file through its own channel, so a log much larger than memory is read once and never held whole. A game
+ * belongs to the range its line starts in. A line longer than ANALYZER_MAX_LINE cannot be a game and is skipped to
+ * its end without being held. Each range writes its mistakes to a file of its own next to the mistakes
+ * file, and the ranges are merged in the order of the log as they finish, so neither the mistakes nor the results of
+ * finished ranges pile up in memory.
+ */
+public class GameAnalyzer {
+    public static final String UNNECESSARY_GUESS = "UNNECESSARY_GUESS";
+    public static final String WORSE_GUESS = "WORSE_GUESS";
+    public static final String WRONG_FLAG = "WRONG_FLAG";
+    private Path log;
+    private int threads;
+
+    /**
+     * This class holds the totals of one player, added up game by game in one range and then merged across ranges.
+     */
+    private static class PlayerStats {
+        private int games;
+        private int wins;
+        private long wonMillis;
+        private long won3BV;
+        private long wonClicks;
+        private long clicks;
+        private long judged;
+        private long guesses;
+        private long unnecessary;
+        private long worse;
+        private long wrongFlags;
+        private long thinkMillis;
+        private long thinkMoves;
+        private long guessThinkMillis;
+
+        /**
+         * This method adds the totals of another range to these ones.
+         */
+        private void merge(PlayerStats other) {
+            this.games += other.games;
+            this.wins += other.wins;
+            this.wonMillis += other.wonMillis;
+            this.won3BV += other.won3BV;
+            this.wonClicks += other.wonClicks;
+            this.clicks += other.clicks;
+            this.judged += other.judged;
+            this.guesses += other.guesses;
+            this.unnecessary += other.unnecessary;
+            this.worse += other.worse;
+            this.wrongFlags += other.wrongFlags;
+            this.thinkMillis += other.thinkMillis;
+            this.thinkMoves += other.thinkMoves;
+            this.guessThinkMillis += other.guessThinkMillis;
+        }
+    }
+
+    /**
+     * This class is what one range of the log gave: the totals of every player in it and how many lines could not be
+     * read as games. While the range is analyzed it also holds the writer its mistakes go to, or null if they are
+     * not kept.
+     */
+    private static class RangeResult {
+        private Map<String, PlayerStats> players = new TreeMap<>();
+        private PrintWriter mistakes;
+        private int badLines;
+    }
+
+    /**
+     * This method is the constructor which stores the log to read and how many threads to read it on.
+     */
+    public GameAnalyzer(Path log, int threads) {
+        this.log = log;
+        this.threads = threads;
+    }
+    /**
+     * This method starts the analyzer from the command line.
+     */
+    public static void main(String[] args) throws Exception {
+        Path log = Paths.get(args.length > 0 ? args[0]
+                : Paths.get(System.getProperty("user.home"), ".minesweeper_games.log").toString());
+        Path mistakes = args.length > 1 ? Paths.get(args[1]) : null;
+        new GameAnalyzer(log, Runtime.getRuntime().availableProcessors()).run(mistakes);
+    }
+    /**
+     * This method analyzes every range of the log on a pool with one thread per processor, writes the mistakes to the
+     * given file if there is one, and prints a report line for every player.
+     */
+    public void run(Path mistakesFile) throws Exception {
+        long start = System.nanoTime();
+        long size = Files.size(this.log);
+        // more ranges than threads so one slow range does not hold up the end
+        int ranges = (int) Math.max(1, Math.min(this.threads * 4L, size / Constants.ANALYZER_READ_BUFFER + 1));
+        ExecutorService pool = Executors.newFixedThreadPool(this.threads);
+        Map<String, PlayerStats> players = new TreeMap<>();
+        int badLines = 0;
+        Path[] parts = new Path[ranges];
+        try {
+            if (mistakesFile != null) {
+                Path folder = mistakesFile.toAbsolutePath().getParent();
+                for (int r = 0; r < ranges; r++) {
+                    parts[r] = Files.createTempFile(folder, "mistakes", ".part");
+                }
+            }
+            List<Future<RangeResult>> futures = new ArrayList<>();
+            for (int r = 0; r < ranges; r++) {
+                long from = size * r / ranges;
+                long to = size * (r + 1) / ranges;
+                Path part = parts[r];
+                futures.add(pool.submit(() -> this.analyze(from, to, part)));
+            }
+            OutputStream mistakes = mistakesFile == null ? null : Files.newOutputStream(mistakesFile);
+            try {
+                if (mistakes != null) {
+                    mistakes.write("offset\tplayer\tmove\taction\tmistake\trisk\tsafest\n"
+                            .getBytes(StandardCharsets.US_ASCII));
+                }
+                for (int r = 0; r < ranges; r++) {
+                    RangeResult result = futures.get(r).get();
+                    // the range is let go of once it is merged, so only the ranges still waiting their turn are held
+                    futures.set(r, null);
+                    for (Map.Entry<String, PlayerStats> entry : result.players.entrySet()) {
+                        players.computeIfAbsent(entry.getKey(), k -> new PlayerStats()).merge(entry.getValue());
+                    }
+                    badLines += result.badLines;
+                    if (mistakes != null) {
+                        Files.copy(parts[r], mistakes);
+                        Files.delete(parts[r]);
+                        parts[r] = null;
+                    }
+                }
+            }
+            finally {
+                if (mistakes != null) {
+                    mistakes.close();
+                }
+            }
+        }
+        finally {
+            pool.shutdown();
+            for (Path part : parts) {
+                if (part != null) {
+                    Files.deleteIfExists(part);
+                }
+            }
+        }
+        this.report(players, badLines, (System.nanoTime() - start) / 1e9);
+    }
+    /**
+     * This method analyzes every game whose line starts at or after the first position and before the second one,
+     * reading the lines with a buffer of its own and writing the mistakes to the given file, or dropping them if
+     * there is none.
+     */
+    private RangeResult analyze(long from, long to, Path part) throws IOException {
+        RangeResult result = new RangeResult();
+        if (part != null) {
+            result.mistakes = new PrintWriter(Files.newBufferedWriter(part, StandardCharsets.US_ASCII));
+        }
+        try {
+            this.analyzeRange(from, to, result);
+        }
+        finally {
+            if (result.mistakes != null) {
+                result.mistakes.close();
+            }
+        }
+        if (result.mistakes != null && result.mistakes.checkError()) {
+            throw new IOException("Could not write the mistakes to " + part);
+        }
+        result.mistakes = null;
+        return result;
+    }
+    /**
+     * This method reads the lines that start in the given range of the log and analyzes each one into the result.
+     */
+    private void analyzeRange(long from, long to, RangeResult result) throws IOException {
+        HintAI ai = new HintAI();
+        try (FileChannel channel = FileChannel.open(this.log, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Constants.ANALYZER_READ_BUFFER);
+            buffer.flip();
+            byte[] line = new byte[256];
+            long position = from;
+            long lineStart = from;
+            int length = 0;
+            boolean tooLong = false;
+            // a range that does not start the file starts after the end of the line the byte before it is in
+            boolean skipping = from > 0;
+            if (skipping) {
+                position = from - 1;
+            }
+            channel.position(position);
+            while (lineStart < to) {
+                if (!buffer.hasRemaining()) {
+                    buffer.clear();
+                    int read = channel.read(buffer);
+                    buffer.flip();
+                    if (read <= 0) {
+                        if (tooLong) {
+                            result.badLines++;
+                        }
+                        else if (!skipping && length > 0) {
+                            this.analyzeLine(ai, new String(line, 0, length, StandardCharsets.US_ASCII), lineStart,
+                                    result);
+                        }
+                        break;
+                    }
+                }
+                byte b = buffer.get();
+                position++;
+                if (b == '\n') {
+                    if (tooLong) {
+                        result.badLines++;
+                    }
+                    else if (!skipping && length > 0) {
+                        this.analyzeLine(ai, new String(line, 0, length, StandardCharsets.US_ASCII), lineStart,
+                                result);
+                    }
+                    skipping = false;
+                    tooLong = false;
+                    length = 0;
+                    lineStart = position;
+                }
+                else if (!skipping && b != '\r') {
+                    if (length == Constants.ANALYZER_MAX_LINE) {
+                        // the rest of a line too long to be a game is skipped, so a log without line breaks is
+                        // never held whole
+                        tooLong = true;
+                        skipping = true;
+                        length = 0;
+                    }
+                    else {
+                        if (length == line.length) {
+                            line = Arrays.copyOf(line, Math.min(length * 2, Constants.ANALYZER_MAX_LINE));
+                        }
+                        line[length] = b;
+                        length++;
+                    }
+                }
+            }
+        }
+    }
+    /**
+     * This method replays the game on one line of the log, starting at the given position of the file, and adds it
+     * to the totals of its player.
+     */
+    private void analyzeLine(HintAI ai, String line, long offset, RangeResult result) {
+        GameRecord record;
+        Board board;
+        try {
+            record = GameRecord.parse(line);
+            board = record.newBoard();
+        }
+        catch (IllegalArgumentException e) {
+            result.badLines++;
+            return;
+        }
+        PlayerStats stats = result.players.computeIfAbsent(record.getPlayer(), k -> new PlayerStats());
+        stats.games++;
+        long clicks = stats.clicks;
+        long lastMillis = 0;
+        for (int m = 0; m < record.getMoveCount() && !board.isGameOver(); m++) {
+            char kind = record.getKind(m);
+            int row = record.getRow(m);
+            int col = record.getCol(m);
+            long think = Math.max(0, record.getMillis(m) - lastMillis);
+            lastMillis = record.getMillis(m);
+            if (kind == GameRecord.UNDO) {
+                board.undo();
+                continue;
+            }
+            stats.clicks++;
+            if (m > 0) {
+                stats.thinkMillis += think;
+                stats.thinkMoves++;
+            }
+            if (kind == GameRecord.FLAG) {
+                Cell cell = board.getCell(row, col);
+                if (!cell.isRevealed() && !cell.isFlagged() && !cell.isMine()) {
+                    stats.wrongFlags++;
+                    this.addMistake(result, offset, record, m, WRONG_FLAG, Double.NaN, Double.NaN);
+                }
+            }
+            else if (board.getRevealCount() > 0) {
+                this.judge(ai, board, record, m, offset, think, stats, result);
+            }
+            board.beginMove();
+            if (kind == GameRecord.REVEAL) {
+                board.reveal(row, col);
+            }
+            else if (kind == GameRecord.CHORD) {
+                board.chord(row, col);
+            }
+            else {
+                board.toggleFlag(row, col);
+            }
+            board.endMove();
+        }
+        if (record.isWon()) {
+            stats.wins++;
+            stats.wonMillis += record.getElapsedMillis();
+            stats.won3BV += board.get3BV();
+            stats.wonClicks += stats.clicks - clicks;
+        }
+    }
+    /**
+     * This method judges a reveal or chord against the risk of every hidden cell before it, counting it as a guess
+     * if it risks a mine and as a mistake if it risks more than it had to.
+     */
+    private void judge(HintAI ai, Board board, GameRecord record, int move, long offset, long think,
+                       PlayerStats stats, RangeResult result) {
+        double[][] risk = ai.getRiskMap(board);
+        double taken = this.riskOf(board, risk, record.getKind(move), record.getRow(move), record.getCol(move));
+        if (Double.isNaN(taken)) {
+            // the move does nothing, like a reveal on a flag or a chord without enough flags
+            return;
+        }
+        stats.judged++;
+        if (taken <= 0) {
+            return;
+        }
+        double safest = Double.POSITIVE_INFINITY;
+        for (double[] row : risk) {
+            for (double value : row) {
+                if (value < safest) {
+                    safest = value;
+                }
+            }
+        }
+        stats.guesses++;
+        stats.guessThinkMillis += think;
+        if (safest <= 0) {
+            stats.unnecessary++;
+            this.addMistake(result, offset, record, move, UNNECESSARY_GUESS, taken, safest);
+        }
+        else if (taken > safest + Constants.ANALYZER_GUESS_TOLERANCE) {
+            stats.worse++;
+            this.addMistake(result, offset, record, move, WORSE_GUESS, taken, safest);
+        }
+    }
+    /**
+     * This method returns the risk a move takes, which for a reveal is the risk of its cell and for a chord is the
+     * highest risk of the hidden cells it reveals, or NaN if the move does not reveal anything.
+     */
+    private double riskOf(Board board, double[][] risk, char kind, int row, int col) {
+        Cell cell = board.getCell(row, col);
+        if (kind == GameRecord.REVEAL) {
+            return cell.isRevealed() || cell.isFlagged() ? Double.NaN : risk[row][col];
+        }
+        if (!cell.isRevealed() || cell.getClueValue() <= 0) {
+            return Double.NaN;
+        }
+        Topology topology = board.getTopology();
+        int cols = board.getCols();
+        int index = row * cols + col;
+        int flags = 0;
+        double highest = Double.NaN;
+        for (int k = topology.getStart(index); k < topology.getEnd(index); k++) {
+            int n = topology.getNeighbor(k);
+            Cell neighbor = board.getCell(n / cols, n % cols);
+            if (neighbor.isFlagged()) {
+                flags++;
+            }
+            else if (!neighbor.isRevealed()) {
+                double value = risk[n / cols][n % cols];
+                if (Double.isNaN(highest) || value > highest) {
+                    highest = value;
+                }
+            }
+        }
+        return flags == cell.getClueValue() ? highest : Double.NaN;
+    }
+    /**
+     * This method writes a line for a mistake to the mistakes of the range if they are kept, keyed by where its game
+     * starts in the log.
+     */
+    private void addMistake(RangeResult result, long offset, GameRecord record, int move, String mistake,
+                            double taken, double safest) {
+        if (result.mistakes == null) {
+            return;
+        }
+        result.mistakes.printf(Locale.ROOT, "%d\t%s\t%d\t%c%d,%d\t%s\t%.3f\t%.3f\n", offset, record.getPlayer(), move,
+                record.getKind(move), record.getRow(move), record.getCol(move), mistake, taken, safest);
+    }
+    /**
+     * This method prints a line for every player with the share of games won, the 3BV cleared per second and per
+     * click in won games, the guesses per game, the share of judged moves that were each kind of mistake, and the
+     * average time taken before a move and before a guess.
+     */
+    private void report(Map<String, PlayerStats> players, int badLines, double seconds) {
+        int games = 0;
+        for (PlayerStats stats : players.values()) {
+            games += stats.games;
+        }
+        System.out.printf("%d games by %d players in %.1f s, %d lines skipped%n", games, players.size(), seconds,
+                badLines);
+        System.out.printf("%-16s %7s %7s %7s %7s %9s %9s %9s %9s %9s %9s%n", "Player", "Games", "Win %", "3BV/s",
+                "Effic.", "Guess/g", "Unneed %", "Worse %", "Flag %", "Think ms", "Guess ms");
+        for (Map.Entry<String, PlayerStats> entry : players.entrySet()) {
+            PlayerStats stats = entry.getValue();
+            System.out.printf("%-16s %7d %7.1f %7.2f %7.2f %9.2f %9.2f %9.2f %9.2f %9.0f %9.0f%n",
+                    entry.getKey(), stats.games, percent(stats.wins, stats.games),
+                    stats.wonMillis == 0 ? 0.0 : stats.won3BV * 1000.0 / stats.wonMillis,
+                    ratio(stats.won3BV, stats.wonClicks), ratio(stats.guesses, stats.games),
+                    percent(stats.unnecessary, stats.judged), percent(stats.worse, stats.judged),
+                    percent(stats.wrongFlags, stats.clicks), ratio(stats.thinkMillis, stats.thinkMoves),
+                    ratio(stats.guessThinkMillis, stats.guesses));
+        }
+    }
+    /**
+     * This method returns the first number divided by the second, or 0 if the second is 0.
+     */
+    private static double ratio(long part, long whole) {
+        return whole == 0 ? 0.0 : (double) part / whole;
+    }
+    /**
+     * This method returns the first number as a percentage of the second, or 0 if the second is 0.
+     */
+    private static double percent(long part, long whole) {
+        return ratio(part, whole) * 100;
+    }
+}
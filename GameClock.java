@@ -0,0 +1,121 @@
+package minesweeper;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * This class measures how long a game has been played using System.nanoTime, which is not affected by changes to
+ * the system clock or by how often frames are drawn. It can be paused and continued, remembers when each move was
+ * made, and keeps a histogram of the think time between moves.
+ */
+public class GameClock {
+    private long startNanos;
+    private long accumulatedNanos;
+    private boolean running;
+    private long[] moveNanos;
+    private int moveCount;
+    private LatencyHistogram thinkTimes;
+
+    /**
+     * This method is the constructor which makes a stopped clock at zero.
+     */
+    public GameClock() {
+        this.moveNanos = new long[16];
+        this.thinkTimes = new LatencyHistogram();
+        this.reset();
+    }
+    /**
+     * This method stops the clock and sets it back to zero, forgetting every move.
+     */
+    public void reset() {
+        this.running = false;
+        this.accumulatedNanos = 0;
+        this.moveCount = 0;
+        this.thinkTimes.clear();
+    }
+    /**
+     * This method starts the clock, or continues it from where it was paused. It does nothing if it is running.
+     */
+    public void start() {
+        if (!this.running) {
+            this.startNanos = System.nanoTime();
+            this.running = true;
+        }
+    }
+    /**
+     * This method pauses the clock, keeping the time counted so far.
+     */
+    public void stop() {
+        if (this.running) {
+            this.accumulatedNanos += System.nanoTime() - this.startNanos;
+            this.running = false;
+        }
+    }
+    /**
+     * This method sets the time counted so far, which is used when a saved game is resumed.
+     */
+    public void setElapsedMillis(long millis) {
+        this.accumulatedNanos = Math.max(0, millis) * 1_000_000L;
+        this.startNanos = System.nanoTime();
+    }
+    /**
+     * This method records that a move was made now, adding the time since the previous move to the think time
+     * histogram.
+     */
+    public void markMove() {
+        long now = this.getElapsedNanos();
+        if (this.moveCount > 0) {
+            this.thinkTimes.record(now - this.moveNanos[this.moveCount - 1]);
+        }
+        if (this.moveCount == this.moveNanos.length) {
+            this.moveNanos = Arrays.copyOf(this.moveNanos, this.moveCount * 2);
+        }
+        this.moveNanos[this.moveCount] = now;
+        this.moveCount++;
+    }
+    /**
+     * This getter method returns the time counted so far in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        if (this.running) {
+            return this.accumulatedNanos + System.nanoTime() - this.startNanos;
+        }
+        return this.accumulatedNanos;
+    }
+    /**
+     * This getter method returns the time counted so far in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return this.getElapsedNanos() / 1_000_000L;
+    }
+    /**
+     * This getter method returns whether the clock is running.
+     */
+    public boolean isRunning() {
+        return this.running;
+    }
+    /**
+     * This getter method returns how many moves were recorded.
+     */
+    public int getMoveCount() {
+        return this.moveCount;
+    }
+    /**
+     * This getter method returns how far into the game the move at the given position was made, in nanoseconds.
+     */
+    public long getMoveNanos(int move) {
+        return this.moveNanos[move];
+    }
+    /**
+     * This getter method returns the histogram of the time taken between one move and the next.
+     */
+    public LatencyHistogram getThinkTimes() {
+        return this.thinkTimes;
+    }
+    /**
+     * This method formats a time in milliseconds as seconds with three decimal places, such as 12.345.
+     */
+    public static String format(long millis) {
+        return String.format(Locale.ROOT, "%d.%03d", millis / 1000, millis % 1000);
+    }
+}
@@ -0,0 +1,89 @@
+package minesweeper;
+
+/**
+ * This class reads the events of a GameEventRing in order for one consumer. Each call to poll moves to the next
+ * event and makes its type and cell available from the getters, reusing the same reader so reading never makes
+ * objects. Events that were written over before the reader got to them are skipped and counted.
+ */
+public class GameEventReader {
+    private GameEventRing ring;
+    private long sequence;
+    private GameEventType type;
+    private int row;
+    private int col;
+    private long missed;
+
+    /**
+     * This method is the constructor which starts reading the ring at the event with the given number.
+     */
+    GameEventReader(GameEventRing ring, long sequence) {
+        this.ring = ring;
+        this.sequence = sequence;
+        this.type = null;
+        this.row = -1;
+        this.col = -1;
+        this.missed = 0;
+    }
+    /**
+     * This method moves to the next event and returns true, or returns false if there is no new event yet.
+     */
+    public boolean poll() {
+        while (true) {
+            long cursor = this.ring.getCursor();
+            if (this.sequence >= cursor) {
+                return false;
+            }
+            long oldest = cursor - this.ring.getCapacity();
+            if (this.sequence < oldest) {
+                this.skip(oldest - this.sequence);
+            }
+            if (this.ring.read(this.sequence, this)) {
+                this.sequence++;
+                return true;
+            }
+            this.skip(1);
+        }
+    }
+    /**
+     * This method skips the given number of events that were written over and counts them as missed.
+     */
+    private void skip(long count) {
+        this.sequence += count;
+        this.missed += count;
+        Metrics.EVENTS_MISSED.add(count);
+    }
+    /**
+     * This method stores the event that was just read.
+     */
+    void set(GameEventType type, int row, int col) {
+        this.type = type;
+        this.row = row;
+        this.col = col;
+    }
+    /**
+     * This method returns how many events were missed since it was last called and starts counting again.
+     */
+    public long takeMissed() {
+        long count = this.missed;
+        this.missed = 0;
+        return count;
+    }
+    /**
+     * This getter method returns the type of the current event.
+     */
+    public GameEventType getType() {
+        return this.type;
+    }
+    /**
+     * This getter method returns the row of the cell of the current event.
+     */
+    public int getRow() {
+        return this.row;
+    }
+    /**
+     * This getter method returns the column of the cell of the current event.
+     */
+    public int getCol() {
+        return this.col;
+    }
+}
@@ -0,0 +1,94 @@
+package minesweeper;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class is a ring of game events that one board writes and any number of readers read, each at its own pace,
+ * without locks and without making objects. Every event is packed into one long in a slot made when the ring is
+ * made, next to the number of the event the slot holds. The board never waits for a reader: once the ring is full
+ * the oldest event is written over, and a reader that fell that far behind skips to the oldest event still held
+ * and counts how many it missed, so it knows to look at the whole board again. A reader checks the number of a slot
+ * before and after reading its event, so an event written over while it was being read is counted as missed
+ * instead of being read wrong.
+ */
+public class GameEventRing {
+    private static final GameEventType[] TYPES = GameEventType.values();
+    private static final int COORD_BITS = 28;
+    private static final long COORD_MASK = (1L << COORD_BITS) - 1;
+    private int capacity;
+    private int mask;
+    private AtomicLongArray sequences;
+    private AtomicLongArray events;
+    private AtomicLong cursor;
+    private long next;
+
+    /**
+     * This method is the constructor which makes every slot of the ring up front. It throws an
+     * IllegalArgumentException if the capacity is not a power of two.
+     */
+    public GameEventRing(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Event ring capacity must be a power of two");
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        this.events = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            this.sequences.set(i, -1);
+        }
+        this.cursor = new AtomicLong(0);
+        this.next = 0;
+    }
+    /**
+     * This method adds an event about the cell at the given coordinate, which is ignored for events that are not
+     * about a cell. Only the board that owns the ring may call it.
+     */
+    public void publish(GameEventType type, int row, int col) {
+        long sequence = this.next;
+        int slot = (int) (sequence & this.mask);
+        // mark the slot as being written so a reader that is in the middle of it sees the change
+        this.sequences.set(slot, -1);
+        this.events.set(slot, ((long) type.ordinal() << (2 * COORD_BITS))
+                | (((long) row & COORD_MASK) << COORD_BITS) | ((long) col & COORD_MASK));
+        this.sequences.set(slot, sequence);
+        this.next = sequence + 1;
+        this.cursor.set(this.next);
+    }
+    /**
+     * This method makes a reader that starts with the next event to be published.
+     */
+    public GameEventReader newReader() {
+        return new GameEventReader(this, this.cursor.get());
+    }
+    /**
+     * This method reads the event with the given number into the reader and returns true, or returns false if its
+     * slot was written over by a newer event.
+     */
+    boolean read(long sequence, GameEventReader reader) {
+        int slot = (int) (sequence & this.mask);
+        if (this.sequences.get(slot) != sequence) {
+            return false;
+        }
+        long event = this.events.get(slot);
+        if (this.sequences.get(slot) != sequence) {
+            return false;
+        }
+        reader.set(TYPES[(int) (event >>> (2 * COORD_BITS))], (int) ((event >>> COORD_BITS) & COORD_MASK),
+                (int) (event & COORD_MASK));
+        return true;
+    }
+    /**
+     * This getter method returns the number the next event will be published with.
+     */
+    long getCursor() {
+        return this.cursor.get();
+    }
+    /**
+     * This getter method returns how many events the ring holds.
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+}
@@ -0,0 +1,11 @@
+package minesweeper;
+
+/**
+ * This enum lists the kinds of events a board puts on its event ring. REVEALED and FLAGGED name the cell that was
+ * revealed or whose flag was placed or removed, HIDDEN names a cell that an undo hid again, WON and LOST end the game,
+ * and REDRAW means the whole board changed at once, such as after a restart, so a reader should look at every cell
+ * again.
+ */
+public enum GameEventType {
+    REVEALED, FLAGGED, HIDDEN, WON, LOST, REDRAW
+}
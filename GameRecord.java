@@ -0,0 +1,240 @@
+package minesweeper;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * This class is one recorded game, which is who played it, the size of the board, whether it was won, how long it
+ * took, where the mines were, and every move with the time into the game it was made. A game is kept in a log as a
+ * single line of tab separated fields:
+ * "player rows cols mines W|L millis layout moves", where the layout has one hex digit for every four cells in row
+ * major order with the first cell in the lowest bit, and the moves are separated by spaces, each one being "R", "F"
+ * or "C" for a reveal, flag or chord followed by "row,col@millis", or "U@millis" for an undo. Each line stands on
+ * its own, so a log can be read a piece at a time and in parallel.
+ */
+public class GameRecord {
+    public static final char REVEAL = 'R';
+    public static final char FLAG = 'F';
+    public static final char CHORD = 'C';
+    public static final char UNDO = 'U';
+    private String player;
+    private int rows;
+    private int cols;
+    private int numMines;
+    private boolean won;
+    private long elapsedMillis;
+    private long[] mines;
+    private char[] kinds;
+    private int[] moveRows;
+    private int[] moveCols;
+    private long[] moveMillis;
+    private int moveCount;
+
+    /**
+     * This method is the constructor which starts recording a game of the given size by the given player, whose
+     * name is kept to letters, digits, dots, dashes and underscores so it cannot break the line.
+     */
+    public GameRecord(String player, int rows, int cols, int numMines) {
+        this.player = player == null || player.isEmpty() ? "player" : player.replaceAll("[^A-Za-z0-9._-]", "_");
+        this.rows = rows;
+        this.cols = cols;
+        this.numMines = numMines;
+        this.won = false;
+        this.elapsedMillis = 0;
+        this.mines = new long[BoardSnapshot.wordsFor(rows, cols)];
+        this.kinds = new char[64];
+        this.moveRows = new int[64];
+        this.moveCols = new int[64];
+        this.moveMillis = new long[64];
+        this.moveCount = 0;
+    }
+    /**
+     * This method records a move of the given kind on the cell at the given coordinate, made the given number of
+     * milliseconds into the game.
+     */
+    public void addMove(char kind, int row, int col, long millis) {
+        if (this.moveCount == this.kinds.length) {
+            int size = this.moveCount * 2;
+            this.kinds = Arrays.copyOf(this.kinds, size);
+            this.moveRows = Arrays.copyOf(this.moveRows, size);
+            this.moveCols = Arrays.copyOf(this.moveCols, size);
+            this.moveMillis = Arrays.copyOf(this.moveMillis, size);
+        }
+        this.kinds[this.moveCount] = kind;
+        this.moveRows[this.moveCount] = row;
+        this.moveCols[this.moveCount] = col;
+        this.moveMillis[this.moveCount] = millis;
+        this.moveCount++;
+    }
+    /**
+     * This method finishes the record with the result, the time, and where the mines of the board were.
+     */
+    public void finish(Board board, boolean won, long elapsedMillis) {
+        this.won = won;
+        this.elapsedMillis = elapsedMillis;
+        Arrays.fill(this.mines, 0);
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.cols; j++) {
+                if (board.getCell(i, j).isMine()) {
+                    BoardSnapshot.setBit(this.mines, i * this.cols + j);
+                }
+            }
+        }
+    }
+    /**
+     * This method adds the record to the end of the log file as one line.
+     */
+    public void appendTo(File file) throws IOException {
+        try (Writer writer = new FileWriter(file, StandardCharsets.US_ASCII, true)) {
+            writer.write(this.toLine());
+            writer.write('\n');
+        }
+    }
+    /**
+     * This method returns the record as a line of the log without the line break.
+     */
+    public String toLine() {
+        StringBuilder line = new StringBuilder(64 + this.rows * this.cols / 4 + this.moveCount * 12);
+        line.append(this.player).append('\t').append(this.rows).append('\t').append(this.cols).append('\t')
+                .append(this.numMines).append('\t').append(this.won ? 'W' : 'L').append('\t')
+                .append(this.elapsedMillis).append('\t');
+        int size = this.rows * this.cols;
+        for (int cell = 0; cell < size; cell += 4) {
+            int digit = 0;
+            for (int b = 0; b < 4 && cell + b < size; b++) {
+                if (BoardSnapshot.getBit(this.mines, cell + b)) {
+                    digit |= 1 << b;
+                }
+            }
+            line.append(Character.forDigit(digit, 16));
+        }
+        line.append('\t');
+        for (int k = 0; k < this.moveCount; k++) {
+            if (k > 0) {
+                line.append(' ');
+            }
+            line.append(this.kinds[k]);
+            if (this.kinds[k] != UNDO) {
+                line.append(this.moveRows[k]).append(',').append(this.moveCols[k]);
+            }
+            line.append('@').append(this.moveMillis[k]);
+        }
+        return line.toString();
+    }
+    /**
+     * This method reads a record back from a line of the log, throwing an IllegalArgumentException if the line is
+     * not a record.
+     */
+    public static GameRecord parse(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 8) {
+            throw new IllegalArgumentException("A game needs 8 fields but has " + fields.length);
+        }
+        try {
+            int rows = Integer.parseInt(fields[1]);
+            int cols = Integer.parseInt(fields[2]);
+            // the size is checked before the record makes room for the mines of a board that size
+            if (rows <= 0 || cols <= 0 || (long) rows * cols > Constants.ANALYZER_MAX_CELLS) {
+                throw new IllegalArgumentException("Bad board size");
+            }
+            int size = rows * cols;
+            if (fields[6].length() != (size + 3) / 4) {
+                throw new IllegalArgumentException("Mine layout does not match the board size");
+            }
+            GameRecord record = new GameRecord(fields[0], rows, cols, Integer.parseInt(fields[3]));
+            record.won = fields[4].equals("W");
+            record.elapsedMillis = Long.parseLong(fields[5]);
+            int mines = 0;
+            for (int cell = 0; cell < size; cell++) {
+                int digit = Character.digit(fields[6].charAt(cell / 4), 16);
+                if (digit < 0) {
+                    throw new IllegalArgumentException("Mine layout is not hex");
+                }
+                if ((digit >> (cell % 4) & 1) != 0) {
+                    BoardSnapshot.setBit(record.mines, cell);
+                    mines++;
+                }
+            }
+            if (mines != record.numMines) {
+                throw new IllegalArgumentException("Mine layout has " + mines + " mines but the game has "
+                        + record.numMines);
+            }
+            if (!fields[7].isEmpty()) {
+                for (String move : fields[7].split(" ")) {
+                    record.parseMove(move);
+                }
+            }
+            return record;
+        }
+        catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Bad game record: " + e.getMessage());
+        }
+    }
+    /**
+     * This method reads one move of a line and adds it to the record.
+     */
+    private void parseMove(String move) {
+        char kind = move.charAt(0);
+        int at = move.indexOf('@');
+        long millis = Long.parseLong(move.substring(at + 1));
+        if (kind == UNDO) {
+            this.addMove(kind, -1, -1, millis);
+            return;
+        }
+        if (kind != REVEAL && kind != FLAG && kind != CHORD) {
+            throw new IllegalArgumentException("Unknown move " + move);
+        }
+        int comma = move.indexOf(',');
+        int row = Integer.parseInt(move.substring(1, comma));
+        int col = Integer.parseInt(move.substring(comma + 1, at));
+        if (row < 0 || row >= this.rows || col < 0 || col >= this.cols) {
+            throw new IllegalArgumentException("Move is outside the board " + move);
+        }
+        this.addMove(kind, row, col, millis);
+    }
+    /**
+     * This method returns a board with the recorded mines and nothing revealed, ready for the moves to be played on.
+     */
+    public Board newBoard() {
+        int words = this.mines.length;
+        BoardSnapshot snapshot = new BoardSnapshot(this.rows, this.cols, this.numMines, this.mines.clone(),
+                new long[words], new long[words], 0, true, false, 0);
+        return new Board(snapshot, null);
+    }
+    /**
+     * This getter method returns the name of the player.
+     */
+    public String getPlayer() { return this.player; }
+    /**
+     * This getter method returns whether the game was won.
+     */
+    public boolean isWon() { return this.won; }
+    /**
+     * This getter method returns how long the game took in milliseconds.
+     */
+    public long getElapsedMillis() { return this.elapsedMillis; }
+    /**
+     * This getter method returns how many moves were recorded.
+     */
+    public int getMoveCount() { return this.moveCount; }
+    /**
+     * This getter method returns the kind of the move at the given position.
+     */
+    public char getKind(int move) { return this.kinds[move]; }
+    /**
+     * This getter method returns the row of the move at the given position.
+     */
+    public int getRow(int move) { return this.moveRows[move]; }
+    /**
+     * This getter method returns the column of the move at the given position.
+     */
+    public int getCol(int move) { return this.moveCols[move]; }
+    /**
+     * This getter method returns how many milliseconds into the game the move at the given position was made.
+     */
+    public long getMillis(int move) { return this.moveMillis[move]; }
+}
@@ -0,0 +1,557 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * This class is a headless game server that lets many games be played at once over sockets on this machine, using
+ * the text protocol of GameSession with one command per line. Every connection is its own session. Instead of a
+ * thread for every session, one thread waits on all the connections with a selector and does nothing but read and
+ * write them, so thousands of sessions only cost their boards and buffers. The lines it reads are queued on their
+ * connection and played by a small pool of workers, which take the queue of one connection at a time, so a session's
+ * commands run in order while a slow command, such as a new board of a million cells, only holds up its own session.
+ * Run it with the port to listen on, for example "7070". A connection can also send "WATCH id" to become a spectator
+ * of another session, after which it is sent every frame of that session's board stream as "FRAME" followed by the
+ * frame in base64. A command that fails is answered with an error instead of stopping its worker, and all sessions
+ * together may hold at most SERVER_TOTAL_CELLS cells. A spectator that falls more than SERVER_MAX_PENDING_BYTES
+ * behind misses frames until it catches up and is then sent a keyframe, a client that keeps sending commands without
+ * reading twice that many bytes of answers is closed, and a connection with SERVER_MAX_QUEUED_COMMANDS commands
+ * waiting is not read from until its worker catches up.
+ */
+public class GameServer {
+    private static final String LINE_TOO_LONG = "\n";
+    private ServerSocketChannel serverChannel;
+    private Selector selector;
+    private Thread thread;
+    private ExecutorService workers;
+    private Map<Integer, GameSession> sessions;
+    private ByteBuffer input;
+    private ConcurrentLinkedQueue<SelectionKey> flushes;
+    private int nextId;
+    private AtomicLong cellsInUse;
+    private volatile boolean running;
+
+    /**
+     * This class is the state of one connection, which is its session, the bytes of the line being read, the lines
+     * waiting to be played, and the answers and frames that could not be written yet, kept in the order they were
+     * sent along with their size. The line being read belongs to the server thread and what the connection watches
+     * belongs to the worker playing its lines, and everything else is shared and only used while holding the
+     * connection's lock.
+     */
+    private static class Connection {
+        private GameSession session;
+        private SelectionKey key;
+        private byte[] line;
+        private int lineLength;
+        private boolean lineTooLong;
+        private ArrayDeque<String> commands;
+        private boolean scheduled;
+        private boolean closed;
+        private boolean quitting;
+        private ArrayDeque<ByteBuffer> output;
+        private long pendingBytes;
+        private boolean flushQueued;
+        private boolean framesDropped;
+        private boolean rewatch;
+        private GameSession watching;
+        private Consumer<byte[]> watcher;
+
+        private Connection(GameSession session) {
+            this.session = session;
+            this.key = null;
+            this.line = new byte[Constants.SERVER_MAX_LINE];
+            this.lineLength = 0;
+            this.lineTooLong = false;
+            this.commands = new ArrayDeque<>();
+            this.scheduled = false;
+            this.closed = false;
+            this.quitting = false;
+            this.output = new ArrayDeque<>();
+            this.pendingBytes = 0;
+            this.flushQueued = false;
+            this.framesDropped = false;
+            this.rewatch = false;
+            this.watching = null;
+            this.watcher = null;
+        }
+    }
+
+    /**
+     * This method is the constructor which listens on the given port of the loopback address, or on any free port
+     * if the port is 0. It throws an IOException if the port cannot be used.
+     */
+    public GameServer(int port) throws IOException {
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                Constants.SERVER_BACKLOG);
+        this.serverChannel.configureBlocking(false);
+        this.serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+        this.sessions = new ConcurrentHashMap<>();
+        this.input = ByteBuffer.allocate(4096);
+        this.flushes = new ConcurrentLinkedQueue<>();
+        this.nextId = 0;
+        this.cellsInUse = new AtomicLong();
+        this.running = false;
+    }
+    /**
+     * This method starts the server from the command line and keeps it running until the process is stopped.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : Constants.SERVER_PORT;
+        GameServer server = new GameServer(port);
+        server.start();
+        System.out.println("Minesweeper server listening on port " + server.getPort());
+    }
+    /**
+     * This method starts the workers and the thread that serves the connections. There are at least
+     * SERVER_MIN_WORKERS workers, so a few slow commands on a small machine do not hold up every other session.
+     */
+    public void start() {
+        this.running = true;
+        this.workers = Executors.newFixedThreadPool(Math.max(Constants.SERVER_MIN_WORKERS,
+                Runtime.getRuntime().availableProcessors()));
+        this.thread = new Thread(this::serve, "minesweeper-server");
+        this.thread.start();
+    }
+    /**
+     * This method stops serving, closes every connection, and waits for the server thread to finish.
+     */
+    public void stop() {
+        this.running = false;
+        this.selector.wakeup();
+        if (this.thread != null) {
+            try {
+                this.thread.join();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    /**
+     * This method waits for connections to be ready and serves them until the server is stopped, writing out what
+     * the workers handed over after every wait.
+     */
+    private void serve() {
+        try {
+            while (this.running) {
+                this.selector.select();
+                Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    try {
+                        if (key.isAcceptable()) {
+                            this.accept();
+                        }
+                        else {
+                            if (key.isWritable()) {
+                                this.write(key);
+                            }
+                            if (key.isValid() && key.isReadable()) {
+                                this.read(key);
+                            }
+                        }
+                    }
+                    catch (IOException e) {
+                        this.close(key);
+                    }
+                    catch (RuntimeException e) {
+                        // a bug serving one connection closes only that connection
+                        System.err.println("Closing a connection that failed: " + e);
+                        this.close(key);
+                    }
+                }
+                this.flush();
+            }
+        }
+        catch (IOException | ClosedSelectorException e) {
+            System.err.println("Minesweeper server stopped: " + e.getMessage());
+        }
+        finally {
+            for (SelectionKey key : this.selector.keys()) {
+                this.close(key);
+            }
+            // the workers finish what is queued, which is ending the sessions of the connections just closed
+            this.workers.shutdown();
+            try {
+                this.selector.close();
+                this.serverChannel.close();
+            }
+            catch (IOException e) {
+                System.err.println("Could not close the server: " + e.getMessage());
+            }
+        }
+    }
+    /**
+     * This method accepts every waiting connection and starts a session for each one.
+     */
+    private void accept() throws IOException {
+        SocketChannel channel = this.serverChannel.accept();
+        while (channel != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            GameSession session = new GameSession(this.nextId, this.cellsInUse);
+            this.nextId++;
+            this.sessions.put(session.getId(), session);
+            Connection connection = new Connection(session);
+            connection.key = channel.register(this.selector, SelectionKey.OP_READ, connection);
+            channel = this.serverChannel.accept();
+        }
+    }
+    /**
+     * This method reads what a connection sent and queues every complete line for its worker. Lines longer than the
+     * limit are queued as a marker that is answered with an error.
+     */
+    private void read(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+        this.input.clear();
+        int count = channel.read(this.input);
+        if (count < 0) {
+            this.close(key);
+            return;
+        }
+        synchronized (connection) {
+            for (int k = 0; k < count && !connection.quitting; k++) {
+                byte b = this.input.get(k);
+                if (b == '\n') {
+                    connection.commands.add(connection.lineTooLong ? LINE_TOO_LONG
+                            : new String(connection.line, 0, connection.lineLength, StandardCharsets.US_ASCII));
+                    connection.lineLength = 0;
+                    connection.lineTooLong = false;
+                }
+                else if (connection.lineLength == connection.line.length) {
+                    connection.lineTooLong = true;
+                }
+                else if (b != '\r') {
+                    connection.line[connection.lineLength] = b;
+                    connection.lineLength++;
+                }
+            }
+            if (!connection.commands.isEmpty()) {
+                this.schedule(connection);
+            }
+        }
+        this.updateInterest(key, connection);
+    }
+    /**
+     * This method writes out every connection the workers handed something over to since the last time.
+     */
+    private void flush() {
+        SelectionKey key = this.flushes.poll();
+        while (key != null) {
+            Connection connection = (Connection) key.attachment();
+            synchronized (connection) {
+                connection.flushQueued = false;
+            }
+            if (key.isValid()) {
+                try {
+                    this.write(key);
+                }
+                catch (IOException e) {
+                    this.close(key);
+                }
+            }
+            key = this.flushes.poll();
+        }
+    }
+    /**
+     * This method writes as much of the waiting answers as the connection takes. A connection that asked to quit is
+     * closed once all is written, a spectator that missed frames is sent a keyframe once it has caught up, and a
+     * client that leaves too much unread is closed, since frames stop at the limit and only answers that are never
+     * read can go this far past it.
+     */
+    private void write(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        SocketChannel channel = (SocketChannel) key.channel();
+        boolean finished;
+        synchronized (connection) {
+            while (!connection.output.isEmpty()) {
+                ByteBuffer head = connection.output.peek();
+                int before = head.remaining();
+                channel.write(head);
+                connection.pendingBytes -= before - head.remaining();
+                if (head.hasRemaining()) {
+                    break;
+                }
+                connection.output.poll();
+            }
+            finished = (connection.output.isEmpty() && connection.quitting)
+                    || connection.pendingBytes > 2L * Constants.SERVER_MAX_PENDING_BYTES;
+            if (connection.output.isEmpty() && connection.framesDropped && !connection.rewatch) {
+                // watching again, which the worker does, starts with a keyframe of the board as it is now
+                connection.rewatch = true;
+                this.schedule(connection);
+            }
+        }
+        if (finished) {
+            this.close(key);
+            return;
+        }
+        this.updateInterest(key, connection);
+    }
+    /**
+     * This method asks to be told when the connection can take more only while some output is left, and when it has
+     * sent more only while its worker is not too far behind.
+     */
+    private void updateInterest(SelectionKey key, Connection connection) {
+        int ops = 0;
+        synchronized (connection) {
+            if (connection.commands.size() < Constants.SERVER_MAX_QUEUED_COMMANDS) {
+                ops |= SelectionKey.OP_READ;
+            }
+            if (!connection.output.isEmpty()) {
+                ops |= SelectionKey.OP_WRITE;
+            }
+        }
+        if (key.isValid()) {
+            key.interestOps(ops);
+        }
+    }
+    /**
+     * This method hands the connection to a worker unless one has it already. It is called holding the connection's
+     * lock.
+     */
+    private void schedule(Connection connection) {
+        if (!connection.scheduled) {
+            connection.scheduled = true;
+            this.workers.execute(() -> this.serveCommands(connection));
+        }
+    }
+    /**
+     * This method is what a worker runs for a connection: it plays the waiting lines in order, handing the answers
+     * to the server thread as they pile up and when the lines run out, and ends the session once the connection is
+     * closed.
+     */
+    private void serveCommands(Connection connection) {
+        StringBuilder answers = new StringBuilder();
+        while (true) {
+            String line;
+            boolean rewatch;
+            synchronized (connection) {
+                if (connection.closed) {
+                    break;
+                }
+                rewatch = connection.rewatch;
+                connection.rewatch = false;
+                line = connection.commands.poll();
+                if (line == null && !rewatch) {
+                    this.post(connection, answers);
+                    // the server thread reads from the connection again once its lines are played
+                    this.queueFlush(connection);
+                    connection.scheduled = false;
+                    return;
+                }
+            }
+            if (rewatch) {
+                this.rewatch(connection);
+            }
+            if (line != null && this.play(connection, line, answers)) {
+                synchronized (connection) {
+                    // the goodbye is queued first, or the server thread could close the connection without it
+                    this.post(connection, answers);
+                    connection.quitting = true;
+                    connection.commands.clear();
+                }
+            }
+            if (answers.length() >= Constants.SERVER_ANSWER_BATCH) {
+                this.post(connection, answers);
+            }
+        }
+        this.unwatch(connection);
+        connection.session.close();
+        synchronized (connection) {
+            connection.scheduled = false;
+        }
+    }
+    /**
+     * This method plays a line that was read and adds its answer, returning true if the client asked to quit.
+     */
+    private boolean play(Connection connection, String line, StringBuilder answers) {
+        if (line.equals(LINE_TOO_LONG)) {
+            answers.append("ERR line too long\n");
+            return false;
+        }
+        if (line.isBlank()) {
+            return false;
+        }
+        if (line.trim().equalsIgnoreCase("QUIT")) {
+            answers.append("BYE\n");
+            return true;
+        }
+        if (line.trim().toUpperCase(Locale.ROOT).startsWith("WATCH")) {
+            this.watch(connection, line, answers);
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            answers.append(connection.session.handle(line)).append('\n');
+        }
+        catch (RuntimeException | OutOfMemoryError e) {
+            // a command that fails is answered like one that cannot be played, so the worker keeps serving the others
+            System.err.println("Command failed in session " + connection.session.getId() + ": " + e);
+            answers.append("ERR internal error\n");
+        }
+        Metrics.SERVER_COMMAND.stop(start);
+        return false;
+    }
+    /**
+     * This method makes the connection a spectator of the session named in the line, in place of any session it was
+     * watching before. The answers so far are handed over before the first frame so they arrive in order.
+     */
+    private void watch(Connection connection, String line, StringBuilder answers) {
+        String[] parts = line.trim().split("\\s+");
+        GameSession target = null;
+        if (parts.length == 2) {
+            try {
+                target = this.sessions.get(Integer.parseInt(parts[1]));
+            }
+            catch (NumberFormatException e) {
+                target = null;
+            }
+        }
+        if (target == null) {
+            answers.append("ERR no such session\n");
+            return;
+        }
+        this.unwatch(connection);
+        answers.append("OK WATCHING ").append(target.getId()).append('\n');
+        this.post(connection, answers);
+        // frames are sent from the worker playing the watched session, so they are only queued here, and a
+        // spectator that is too far behind misses frames until it has read what is waiting
+        connection.watcher = (byte[] frame) -> this.sendFrame(connection, frame);
+        connection.watching = target;
+        target.addWatcher(connection.watcher);
+    }
+    /**
+     * This method stops a connection from watching the session it was watching, if any.
+     */
+    private void unwatch(Connection connection) {
+        if (connection.watching != null) {
+            connection.watching.removeWatcher(connection.watcher);
+            connection.watching = null;
+            connection.watcher = null;
+            synchronized (connection) {
+                connection.framesDropped = false;
+            }
+        }
+    }
+    /**
+     * This method watches the same session again after frames were dropped, which sends a keyframe first. Frames
+     * stay dropped until the watcher is removed, so no delta arrives before the keyframe.
+     */
+    private void rewatch(Connection connection) {
+        GameSession target = connection.watching;
+        if (target == null) {
+            return;
+        }
+        target.removeWatcher(connection.watcher);
+        synchronized (connection) {
+            connection.framesDropped = false;
+        }
+        target.addWatcher(connection.watcher);
+    }
+    /**
+     * This method queues a frame of a watched session for a spectator, or drops it if the spectator is too far
+     * behind.
+     */
+    private void sendFrame(Connection connection, byte[] frame) {
+        synchronized (connection) {
+            if (connection.closed || connection.framesDropped
+                    || connection.pendingBytes > Constants.SERVER_MAX_PENDING_BYTES) {
+                connection.framesDropped = true;
+                return;
+            }
+        }
+        this.post(connection, new StringBuilder("FRAME ").append(Base64.getEncoder().encodeToString(frame))
+                .append('\n'));
+    }
+    /**
+     * This method queues answers to be written to a connection by the server thread and empties them.
+     */
+    private void post(Connection connection, StringBuilder answers) {
+        if (answers.length() == 0) {
+            return;
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(answers.toString().getBytes(StandardCharsets.US_ASCII));
+        answers.setLength(0);
+        synchronized (connection) {
+            if (connection.closed) {
+                return;
+            }
+            connection.output.add(bytes);
+            connection.pendingBytes += bytes.remaining();
+            this.queueFlush(connection);
+        }
+    }
+    /**
+     * This method asks the server thread to write out the connection, waking it if it waits. It is called holding
+     * the connection's lock.
+     */
+    private void queueFlush(Connection connection) {
+        if (!connection.flushQueued) {
+            connection.flushQueued = true;
+            this.flushes.add(connection.key);
+            this.selector.wakeup();
+        }
+    }
+    /**
+     * This method closes a connection and has its worker end its session.
+     */
+    private void close(SelectionKey key) {
+        if (key.attachment() instanceof Connection) {
+            Connection connection = (Connection) key.attachment();
+            this.sessions.remove(connection.session.getId());
+            synchronized (connection) {
+                connection.closed = true;
+                connection.commands.clear();
+                connection.output.clear();
+                connection.pendingBytes = 0;
+                this.schedule(connection);
+            }
+        }
+        key.cancel();
+        try {
+            key.channel().close();
+        }
+        catch (IOException e) {
+            System.err.println("Could not close a connection: " + e.getMessage());
+        }
+    }
+    /**
+     * This getter method returns the port the server listens on.
+     */
+    public int getPort() {
+        return this.serverChannel.socket().getLocalPort();
+    }
+    /**
+     * This getter method returns how many sessions are connected right now.
+     */
+    public int getSessionCount() {
+        return this.sessions.size();
+    }
+}
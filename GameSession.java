@@ -0,0 +1,210 @@
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * This class is one game played through the game server. It reads the commands of the server's text protocol,
+ * plays them on a board that has no controller, and answers each command with a single line. The commands are
+ * "NEW rows cols mines [seed]", "REVEAL row col", "FLAG row col", "CHORD row col" and "VIEW". A move is answered
+ * with "OK" followed by whether the game is PLAYING, WON or LOST, how many cells were revealed and how many flags
+ * are placed, and anything that cannot be played is answered with "ERR" and the reason. Watchers added by the
+ * server are sent the frames of the board's stream as the game is played. The cells of every session's board count
+ * against one budget shared by the server, so many large games cannot run it out of memory together. The session is
+ * played by one worker of the server at a time, but a spectator's worker may add or remove a watcher while it plays,
+ * so every method that touches the board holds the session's lock.
+ */
+public class GameSession {
+    private int id;
+    private Board board;
+    private List<Consumer<byte[]>> watchers;
+    private AtomicLong cellsInUse;
+
+    /**
+     * This method is the constructor which starts the session with the given id and no game, counting the cells of
+     * its boards in the given count of cells that all sessions hold.
+     */
+    public GameSession(int id, AtomicLong cellsInUse) {
+        this.id = id;
+        this.board = null;
+        this.watchers = new ArrayList<>();
+        this.cellsInUse = cellsInUse;
+    }
+    /**
+     * This method plays one command line and returns the answer without a line break.
+     */
+    public synchronized String handle(String line) {
+        String[] parts = line.trim().split("\\s+");
+        String command = parts[0].toUpperCase(Locale.ROOT);
+        try {
+            if (command.equals("NEW")) {
+                return this.newGame(parts);
+            }
+            else if (command.equals("REVEAL") || command.equals("FLAG") || command.equals("CHORD")) {
+                return this.move(command, parts);
+            }
+            else if (command.equals("VIEW")) {
+                return this.view();
+            }
+            return "ERR unknown command";
+        }
+        catch (NumberFormatException e) {
+            return "ERR bad number";
+        }
+    }
+    /**
+     * This method starts a new game of the given size, clearing the board in place when it is already that size.
+     */
+    private String newGame(String[] parts) {
+        if (parts.length != 4 && parts.length != 5) {
+            return "ERR usage NEW rows cols mines [seed]";
+        }
+        int rows = Integer.parseInt(parts[1]);
+        int cols = Integer.parseInt(parts[2]);
+        int mines = Integer.parseInt(parts[3]);
+        long seed = parts.length == 5 ? Long.parseLong(parts[4]) : System.nanoTime();
+        if (rows <= 0 || cols <= 0 || (long) rows * cols > Constants.SERVER_MAX_CELLS) {
+            return "ERR bad size";
+        }
+        // the first click and its neighbors are kept free, and a click in the middle has the most neighbors, which
+        // is fewer than eight on a board less than three cells high or wide
+        if (mines < 0 || mines > rows * cols - Math.min(rows, 3) * Math.min(cols, 3)) {
+            return "ERR bad mine count";
+        }
+        if (this.board != null && this.board.getRows() == rows && this.board.getCols() == cols
+                && this.board.getNumMines() == mines) {
+            this.board.reset(seed);
+        }
+        else {
+            long held = this.board == null ? 0 : (long) this.board.getRows() * this.board.getCols();
+            long change = (long) rows * cols - held;
+            if (this.cellsInUse.addAndGet(change) > Constants.SERVER_TOTAL_CELLS) {
+                this.cellsInUse.addAndGet(-change);
+                return "ERR server full";
+            }
+            try {
+                this.board = new Board(rows, cols, mines, null, seed);
+            }
+            catch (RuntimeException | OutOfMemoryError e) {
+                this.cellsInUse.addAndGet(-change);
+                throw e;
+            }
+            for (Consumer<byte[]> watcher : this.watchers) {
+                this.board.getStream().addSpectator(watcher);
+            }
+        }
+        return this.status();
+    }
+    /**
+     * This method plays a reveal, flag or chord on the cell in the command.
+     */
+    private String move(String command, String[] parts) {
+        if (this.board == null) {
+            return "ERR no game";
+        }
+        if (parts.length != 3) {
+            return "ERR usage " + command + " row col";
+        }
+        int row = Integer.parseInt(parts[1]);
+        int col = Integer.parseInt(parts[2]);
+        if (this.board.getCell(row, col) == null) {
+            return "ERR bad cell";
+        }
+        if (this.board.isGameOver()) {
+            return this.status();
+        }
+        this.board.beginMove();
+        // the move is closed even when it fails part way, so what it changed is still recorded and sent
+        try {
+            if (command.equals("REVEAL")) {
+                this.board.reveal(row, col);
+            }
+            else if (command.equals("FLAG")) {
+                this.board.toggleFlag(row, col);
+            }
+            else {
+                this.board.chord(row, col);
+            }
+        }
+        finally {
+            this.board.endMove();
+        }
+        return this.status();
+    }
+    /**
+     * This method returns the board as one line with a character for every cell in row major order, which is "#"
+     * for a hidden cell, "F" for a flag, "*" for a revealed mine and the number of mines around any other cell.
+     */
+    private String view() {
+        if (this.board == null) {
+            return "ERR no game";
+        }
+        StringBuilder builder = new StringBuilder(this.board.getRows() * this.board.getCols() + 5);
+        builder.append("VIEW ");
+        for (int i = 0; i < this.board.getRows(); i++) {
+            for (int j = 0; j < this.board.getCols(); j++) {
+                Cell cell = this.board.getCell(i, j);
+                if (cell.isFlagged()) {
+                    builder.append('F');
+                }
+                else if (!cell.isRevealed()) {
+                    builder.append('#');
+                }
+                else if (cell.isMine()) {
+                    builder.append('*');
+                }
+                else {
+                    builder.append((char) ('0' + Math.max(0, cell.getClueValue())));
+                }
+            }
+        }
+        return builder.toString();
+    }
+    /**
+     * This method returns the answer to a move, which is the state of the game with the revealed and flag counts.
+     */
+    private String status() {
+        String state = "PLAYING";
+        if (this.board.isGameOver()) {
+            state = this.board.isWon() ? "WON" : "LOST";
+        }
+        return "OK " + state + " " + this.board.getRevealCount() + " " + this.board.getFlags();
+    }
+    /**
+     * This method adds a watcher that is sent the frames of this session's board stream, starting with a keyframe,
+     * and keeps being sent them when a new game starts.
+     */
+    public synchronized void addWatcher(Consumer<byte[]> watcher) {
+        this.watchers.add(watcher);
+        if (this.board != null) {
+            this.board.getStream().addSpectator(watcher);
+        }
+    }
+    /**
+     * This method stops sending frames to a watcher.
+     */
+    public synchronized void removeWatcher(Consumer<byte[]> watcher) {
+        this.watchers.remove(watcher);
+        if (this.board != null) {
+            this.board.getStream().removeSpectator(watcher);
+        }
+    }
+    /**
+     * This method ends the session, giving the cells of its board back to the count of cells all sessions hold.
+     */
+    public synchronized void close() {
+        if (this.board != null) {
+            this.cellsInUse.addAndGet(-(long) this.board.getRows() * this.board.getCols());
+            this.board = null;
+        }
+    }
+    /**
+     * This getter method returns the id of the session.
+     */
+    public int getId() {
+        return this.id;
+    }
+}
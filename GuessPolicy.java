@@ -0,0 +1,106 @@
+package minesweeper;
+
+/**
+ * This class chooses which cell to reveal when no cell is known to be safe. Only the cells tied for the lowest risk
+ * are considered, since letting in riskier cells lost more games than their better scores won, and among those the
+ * cell is chosen by how likely it is to be a zero that opens up an area, how much its number would tell about the
+ * cells next to the revealed area, and a small preference for corners and edges. The cells are checked in row order
+ * so the same board always gives the same guess, and every step is a fixed number of passes over the board so it
+ * stays well under a millisecond on Hard.
+ */
+public class GuessPolicy {
+    private static final double ZERO_WEIGHT = 1.0;
+    private static final double INFO_WEIGHT = 0.5;
+    private static final double CORNER_BONUS = 0.2;
+    private static final double EDGE_BONUS = 0.1;
+
+    /**
+     * This method returns the best guess on the board given the risk of every cell, where revealed and flagged cells
+     * have a risk of NaN, or null if there is no hidden cell.
+     */
+    public Move choose(Board board, double[][] risk) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        double lowestRisk = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (risk[i][j] < lowestRisk) {
+                    lowestRisk = risk[i][j];
+                }
+            }
+        }
+        boolean[][] frontier = this.findFrontier(board);
+        int bestRow = -1;
+        int bestCol = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (Double.isNaN(risk[i][j]) || risk[i][j] > lowestRisk) {
+                    continue;
+                }
+                double score = this.score(board, risk, frontier, i, j);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestRow = i;
+                    bestCol = j;
+                }
+            }
+        }
+        if (bestRow < 0) {
+            return null;
+        }
+        return Move.reveal(bestRow, bestCol, true);
+    }
+    /**
+     * This method scores one hidden cell that has the lowest risk. The chance of a zero is the chance that the cell
+     * and all its hidden neighbors are safe, and the information is how many of its hidden neighbors are still
+     * uncertain, counting the ones next to the revealed area twice.
+     */
+    private double score(Board board, double[][] risk, boolean[][] frontier, int row, int col) {
+        double zero = 1.0;
+        double info = 0.0;
+        int[][] neighbors = board.getNeighborCoords(row, col);
+        for (int[] n : neighbors) {
+            Cell neighbor = board.getCell(n[0], n[1]);
+            if (neighbor.isFlagged()) {
+                zero = 0.0;
+            }
+            else if (!neighbor.isRevealed()) {
+                double r = risk[n[0]][n[1]];
+                zero *= 1.0 - r;
+                if (r > 0.0 && r < 1.0) {
+                    info += frontier[n[0]][n[1]] ? 2.0 : 1.0;
+                }
+            }
+        }
+        double bonus = 0.0;
+        if (neighbors.length <= 3) {
+            bonus = CORNER_BONUS;
+        }
+        else if (neighbors.length <= 5) {
+            bonus = EDGE_BONUS;
+        }
+        return ZERO_WEIGHT * zero + INFO_WEIGHT * info / 16.0 + bonus;
+    }
+    /**
+     * This method marks every hidden cell that touches a revealed cell.
+     */
+    private boolean[][] findFrontier(Board board) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        boolean[][] frontier = new boolean[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (!board.getCell(i, j).isRevealed()) {
+                    continue;
+                }
+                for (int[] n : board.getNeighborCoords(i, j)) {
+                    if (!board.getCell(n[0], n[1]).isRevealed()) {
+                        frontier[n[0]][n[1]] = true;
+                    }
+                }
+            }
+        }
+        return frontier;
+    }
+}
@@ -5,40 +5,160 @@ import java.util.List;
 
 /**
  * This class makes risk estimates for cells based on revealed number clues using a tree and is used as the base
- * of the AI system in the hint, versus, and tutorial options of the menu.
+ * of the AI system in the hint, versus, and tutorial options of the menu. It is also the baseline Solver that other
+ * strategies are compared against.
  */
-public class HintAI {
-    private IRiskNode root;
+public class HintAI implements Solver {
+    private GuessPolicy guessPolicy;
+    private MineProbabilitySampler sampler;
+    private long samplerBudgetMillis;
+    private EndgameSolver endgame;
+    private FrontierCache patterns;
+
     /**
-     * This method is the constructor that creates an empty root risk tree.
+     * This method is the constructor which creates the policy used to pick guesses.
      */
     public HintAI() {
-        this.root = new EmptyRiskNode();
+        this(null, 0);
+    }
+    /**
+     * This method is a constructor that also uses a sampler to estimate mine probabilities before guessing, spending
+     * at most the given number of milliseconds on each guess.
+     */
+    public HintAI(MineProbabilitySampler sampler, long samplerBudgetMillis) {
+        this.guessPolicy = new GuessPolicy();
+        this.sampler = sampler;
+        this.samplerBudgetMillis = samplerBudgetMillis;
+        this.endgame = new EndgameSolver();
+        this.patterns = FrontierCache.shared();
+    }
+    /**
+     * This getter method returns the name of this strategy.
+     */
+    @Override
+    public String getName() {
+        if (this.sampler != null) {
+            return "HintAI+MC";
+        }
+        return "HintAI";
+    }
+    /**
+     * This method chooses the AI player's next move by first clicking the center to start the game, then flagging
+     * a cell that is almost certainly a mine, otherwise revealing a cell that is known to be safe, and otherwise
+     * letting the guess policy pick the best cell to guess. In the endgame the exact probabilities of the endgame
+     * solver are used instead of the estimates, so only cells that are certainly mines are flagged.
+     */
+    @Override
+    public Move chooseMove(Board board) {
+        if (board == null || board.isGameOver()) {
+            return null;
+        }
+        if (!board.isInitialized()) {
+            return Move.reveal(board.getRows() / 2, board.getCols() / 2, false);
+        }
+        ProbabilityEstimate exact = this.endgame.solve(board);
+        double[][] risk = exact != null ? exact.getProbabilities() : this.estimateRiskMap(board);
+        double flagRisk = exact != null ? 1.0 : Constants.AI_FLAG_MIN_RISK;
+        boolean canFlag = board.getFlags() < board.getNumMines();
+        int safestRow = -1;
+        int safestCol = -1;
+        double lowestRisk = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < board.getRows(); i++) {
+            for (int j = 0; j < board.getCols(); j++) {
+                double r = risk[i][j];
+                if (Double.isNaN(r)) {
+                    continue;
+                }
+                // first try to flag dangerous cells
+                if (canFlag && r >= flagRisk) {
+                    return Move.flag(i, j);
+                }
+                if (r < lowestRisk) {
+                    lowestRisk = r;
+                    safestRow = i;
+                    safestCol = j;
+                }
+            }
+        }
+        if (safestRow < 0) {
+            return null;
+        }
+        // if nothing to flag, click a safe cell
+        if (lowestRisk <= 0.0) {
+            return Move.reveal(safestRow, safestCol, false);
+        }
+        // if there is no safe cell, guess, using sampled probabilities instead of the estimates when available
+        if (this.sampler != null && exact == null) {
+            ProbabilityEstimate estimate = this.sampler.estimate(board, this.samplerBudgetMillis, Long.MAX_VALUE);
+            if (estimate != null) {
+                return this.guessPolicy.choose(board, estimate.getProbabilities());
+            }
+        }
+        return this.guessPolicy.choose(board, risk);
+    }
+    /**
+     * This method returns the estimated risk of every cell on the board, with NaN for cells that are revealed or
+     * flagged since they cannot be clicked. In the endgame the risks are the exact probabilities.
+     */
+    public double[][] getRiskMap(Board board) {
+        ProbabilityEstimate exact = this.endgame.solve(board);
+        if (exact != null) {
+            return exact.getProbabilities();
+        }
+        return this.estimateRiskMap(board);
+    }
+    /**
+     * This method returns the risk of every cell estimated from the numbers around it alone.
+     */
+    private double[][] estimateRiskMap(Board board) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        Cell[][] grid = board.getGrid();
+        double[][] risk = new double[rows][cols];
+        double defaultRisk = this.setRisk(board, rows, cols, grid);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                Cell cell = grid[i][j];
+                if (cell.isRevealed() || cell.isFlagged()) {
+                    risk[i][j] = Double.NaN;
+                }
+                else {
+                    risk[i][j] = this.getRisk(board, i, j, defaultRisk);
+                }
+            }
+        }
+        return risk;
     }
     /**
      * This method returns the single safest cell based on risk or null if no move is available by inserting
-     * unknown cells and their risks into the tree and getting the leftmost node.
+     * unknown cells and their risks into the tree and getting the leftmost node. The tree is built fresh for every
+     * call so that one HintAI can be used from several threads, and the search stops early with null if the thread
+     * running it is interrupted.
      */
     public Cell getHint(Board board) {
         if (board == null || !board.isInitialized() || board.isGameOver()) {
             return null;
         }
-        this.root = new EmptyRiskNode();
+        IRiskNode root = new EmptyRiskNode();
         int rows = board.getRows();
         int cols = board.getCols();
         Cell[][] grid = board.getGrid();
         double defaultRisk = this.setRisk(board, rows, cols, grid);
+        ProbabilityEstimate exact = this.endgame.solve(board);
         for (int i = 0; i < rows; i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                return null;
+            }
             for (int j = 0; j < cols; j++) {
                 Cell cell = grid[i][j];
                 if (cell.isRevealed() || cell.isFlagged()) {
                     continue;
                 }
-                double risk = this.getRisk(board, i, j, defaultRisk);
-                this.root = this.root.insert(cell, risk);
+                double risk = exact != null ? exact.getProbability(i, j) : this.getRisk(board, i, j, defaultRisk);
+                root = root.insert(cell, risk);
             }
         }
-        IRiskNode bestNode = this.root.leftMost();
+        IRiskNode bestNode = root.leftMost();
         if (bestNode == null || bestNode.getCell() == null) {
             return null;
         }
@@ -80,13 +200,17 @@ public class HintAI {
         int cols = board.getCols();
         Cell[][] grid = board.getGrid();
         double defaultRisk = this.setRisk(board, rows, cols, grid);
+        ProbabilityEstimate exact = this.endgame.solve(board);
         for (int i = 0; i < rows; i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                return result;
+            }
             for (int j = 0; j < cols; j++) {
                 Cell cell = grid[i][j];
                 if (cell.isRevealed() || cell.isFlagged()) {
                     continue;
                 }
-                double risk = this.getRisk(board, i, j, defaultRisk);
+                double risk = exact != null ? exact.getProbability(i, j) : this.getRisk(board, i, j, defaultRisk);
                 if (risk >= minRisk) {
                     result.add(cell);
                 }
@@ -100,17 +224,32 @@ public class HintAI {
      * This method estimates how likely it is that this cell is a mine by looking at nearby revealed number cells. it
      * checks how many mines are still unaccounted for and how many neighboring cells are still unknown for each
      * revealed number around the cell, then calculates a risk value. The final risk is the highest risk found from all
-     * nearby numbers. If no numbers give a risk value, then it uses the defaultRisk instead.
+     * nearby numbers. If no numbers give a risk value, then it uses the defaultRisk instead. Cells that the numbers
+     * around them together prove safe or mined, such as in a 1-2-1 pattern, are found in the shared frontier cache
+     * and get a risk of 0 or 1 on a square board. The neighbors are walked through the board's topology.
      */
     private double getRisk(Board board, int row, int col, double defaultRisk) {
+        Topology topology = board.getTopology();
+        if (topology.getKind() == TopologyKind.SQUARE) {
+            FrontierPattern pattern = this.patterns.lookup(board, row, col);
+            if (pattern == null) {
+                return defaultRisk;
+            }
+            if (pattern.isSafe(FrontierPattern.CENTER)) {
+                return 0.0;
+            }
+            if (pattern.isMine(FrontierPattern.CENTER)) {
+                return 1.0;
+            }
+        }
         // track the highest risk from any neighboring cell, start at -1 meaning no useful hint
         Cell[][] grid = board.getGrid();
-        int[][] neighbours = board.getNeighborCoords(row, col);
+        int cols = board.getCols();
+        int cell = row * cols + col;
         double maxLocalRisk = -1.0;
-        for (int[] coord : neighbours) {
-            int i = coord[0];
-            int j = coord[1];
-            Cell neighborCell = grid[i][j];
+        for (int k = topology.getStart(cell); k < topology.getEnd(cell); k++) {
+            int number = topology.getNeighbor(k);
+            Cell neighborCell = grid[number / cols][number % cols];
             if (!neighborCell.isRevealed()) {
                 continue;
             }
@@ -119,13 +258,11 @@ public class HintAI {
                 continue;
             }
             // look at neighbor cells and count number flagged and number unknown
-            int[][] numberNeighbors = board.getNeighborCoords(i, j);
             int flagged = 0;
             int unknown = 0;
-            for (int[] around : numberNeighbors) {
-                int ii = around[0];
-                int jj = around[1];
-                Cell n = grid[ii][jj];
+            for (int m = topology.getStart(number); m < topology.getEnd(number); m++) {
+                int around = topology.getNeighbor(m);
+                Cell n = grid[around / cols][around % cols];
                 if (n.isFlagged()) {
                     flagged++;
                 }
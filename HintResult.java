@@ -0,0 +1,57 @@
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class stores the result of one hint analysis of a board by the HintAI as plain coordinates, so it can be
+ * computed on a copy of the board in the background and then applied to the real board.
+ */
+public class HintResult {
+    private int[] safest;
+    private List<int[]> dangerous;
+
+    private HintResult(int[] safest, List<int[]> dangerous) {
+        this.safest = safest;
+        this.dangerous = dangerous;
+    }
+    /**
+     * This method analyzes the given board with the HintAI, finding the safest cell and the cells that are
+     * dangerous enough to be highlighted.
+     */
+    public static HintResult analyze(Board board, HintAI hintAI) {
+        long start = System.nanoTime();
+        Cell safestCell = hintAI.getHint(board);
+        Metrics.HINT_SAFEST.stop(start);
+        int[] safest = null;
+        if (safestCell != null) {
+            safest = new int[]{safestCell.getRow(), safestCell.getCol()};
+        }
+        start = System.nanoTime();
+        List<int[]> dangerous = toCoords(hintAI.getDangerousCells(board, Constants.HINT_MIN_RISK));
+        Metrics.HINT_DANGEROUS.stop(start);
+        return new HintResult(safest, dangerous);
+    }
+    /**
+     * This method turns a list of cells into a list of their coordinates.
+     */
+    private static List<int[]> toCoords(List<Cell> cells) {
+        List<int[]> coords = new ArrayList<>();
+        for (Cell cell : cells) {
+            coords.add(new int[]{cell.getRow(), cell.getCol()});
+        }
+        return coords;
+    }
+    /**
+     * This getter method returns the coordinate of the safest cell, or null if there is none.
+     */
+    public int[] getSafest() {
+        return this.safest;
+    }
+    /**
+     * This getter method returns the coordinates of the cells that should be highlighted as dangerous.
+     */
+    public List<int[]> getDangerous() {
+        return this.dangerous;
+    }
+}
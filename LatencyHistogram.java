@@ -0,0 +1,105 @@
+package minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * This class counts durations in nanoseconds in buckets that grow with the size of the value, eight buckets for
+ * every power of two, so any percentile can be read back to within about twelve percent using a small fixed amount
+ * of memory no matter how many durations are recorded.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private long[] counts;
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    /**
+     * This method is the constructor which makes an empty histogram.
+     */
+    public LatencyHistogram() {
+        this.counts = new long[(64 - SUB_BITS) * SUB_BUCKETS];
+        this.count = 0;
+        this.totalNanos = 0;
+        this.maxNanos = 0;
+    }
+    /**
+     * This method adds one duration to the histogram, treating negative durations as zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        this.counts[bucketOf(value)]++;
+        this.count++;
+        this.totalNanos += value;
+        this.maxNanos = Math.max(this.maxNanos, value);
+    }
+    /**
+     * This method removes every recorded duration.
+     */
+    public void clear() {
+        Arrays.fill(this.counts, 0);
+        this.count = 0;
+        this.totalNanos = 0;
+        this.maxNanos = 0;
+    }
+    /**
+     * This method returns the bucket a duration falls in. Values below sixteen get a bucket each, and above that
+     * each power of two is split into eight buckets of equal width.
+     */
+    private static int bucketOf(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (exponent + 1) * SUB_BUCKETS + (int) ((value >>> exponent) & (SUB_BUCKETS - 1));
+    }
+    /**
+     * This method returns the largest duration that falls in the given bucket.
+     */
+    private static long upperBoundOf(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << exponent;
+        return lower + (1L << exponent) - 1;
+    }
+    /**
+     * This method returns the duration that the given fraction of recorded durations are at or below, such as 0.99
+     * for the 99th percentile, or 0 if nothing was recorded. The answer is the top of the bucket it falls in, capped
+     * at the largest duration recorded.
+     */
+    public long getPercentileNanos(double fraction) {
+        if (this.count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * this.count));
+        long seen = 0;
+        for (int i = 0; i < this.counts.length; i++) {
+            seen += this.counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), this.maxNanos);
+            }
+        }
+        return this.maxNanos;
+    }
+    /**
+     * This getter method returns how many durations were recorded.
+     */
+    public long getCount() {
+        return this.count;
+    }
+    /**
+     * This getter method returns the exact average of the recorded durations, or 0 if nothing was recorded.
+     */
+    public double getMeanNanos() {
+        return this.count == 0 ? 0 : (double) this.totalNanos / this.count;
+    }
+    /**
+     * This getter method returns the longest recorded duration.
+     */
+    public long getMaxNanos() {
+        return this.maxNanos;
+    }
+}
@@ -0,0 +1,277 @@
+package minesweeper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * This class is a board that can be far larger than memory, such as a million by a million cells. Whether a cell is
+ * a mine is worked out from the seed and the coordinate with a hash, so the mines never have to be stored, and
+ * numbers are counted from the neighbors when they are asked for. Only the revealed and flagged state of cells is
+ * stored, either in chunks that are made the first time a cell in them changes and spilled to disk when they have
+ * not been used for a while, or in a file mapped into memory that can be saved and opened again instantly.
+ */
+public class LazyBoard {
+    private static final int[] DR = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] DC = {-1, 0, 1, -1, 1, -1, 0, 1};
+    private static final int DENSITY = 0;
+    private static final int SEED = 8;
+    private static final int INITIALIZED = 16;
+    private static final int FIRST_ROW = 20;
+    private static final int FIRST_COL = 24;
+    private static final int GAME_OVER = 28;
+    private static final int FLAG_COUNT = 32;
+    private static final int REVEALED_COUNT = 40;
+    private int rows;
+    private int cols;
+    private double density;
+    private long seed;
+    private long mineThreshold;
+    private int firstRow;
+    private int firstCol;
+    private boolean initialized;
+    private boolean gameOver;
+    private long flagCount;
+    private long revealedCount;
+    private CellStore cells;
+    private ByteBuffer metadata;
+
+    /**
+     * This method is the constructor which makes a board of the given size where each cell is a mine with the given
+     * probability, the mines being decided by the seed. Its state is kept in chunks in memory and a temporary folder.
+     */
+    public LazyBoard(int rows, int cols, double density, long seed) throws IOException {
+        this(rows, cols, density, seed, new ChunkCache(Constants.LAZY_CHUNKS_IN_MEMORY), null);
+    }
+    /**
+     * This method is the constructor that the others delegate to, which stores the cell storage and, for a board
+     * kept in a file, the part of the file header that holds the rest of its state.
+     */
+    private LazyBoard(int rows, int cols, double density, long seed, CellStore cells, ByteBuffer metadata) {
+        if (rows <= 0 || cols <= 0 || density < 0 || density >= 1) {
+            cells.close();
+            throw new IllegalArgumentException("Invalid board size or mine density");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.density = density;
+        this.seed = seed;
+        this.mineThreshold = (long) (density * (1L << 53));
+        this.initialized = false;
+        this.gameOver = false;
+        this.flagCount = 0;
+        this.revealedCount = 0;
+        this.cells = cells;
+        this.metadata = metadata;
+    }
+    /**
+     * This method makes a new board of the given size whose state is kept in a file mapped into memory, replacing
+     * the file if it exists.
+     */
+    public static LazyBoard create(File file, int rows, int cols, double density, long seed) throws IOException {
+        MappedTileStore store = MappedTileStore.create(file, rows, cols);
+        LazyBoard board = new LazyBoard(rows, cols, density, seed, store, store.getMetadata());
+        board.flush();
+        return board;
+    }
+    /**
+     * This method opens a board that was made by the create method, reading only the header of the file, so even a
+     * giant board opens at once. It throws an IOException if the file is not a saved board.
+     */
+    public static LazyBoard open(File file) throws IOException {
+        MappedTileStore store = MappedTileStore.open(file);
+        ByteBuffer metadata = store.getMetadata();
+        LazyBoard board = new LazyBoard(store.getRows(), store.getCols(), metadata.getDouble(DENSITY),
+                metadata.getLong(SEED), store, metadata);
+        if (metadata.get(INITIALIZED) != 0) {
+            board.initialize(metadata.getInt(FIRST_ROW), metadata.getInt(FIRST_COL));
+        }
+        board.gameOver = metadata.get(GAME_OVER) != 0;
+        board.flagCount = metadata.getLong(FLAG_COUNT);
+        board.revealedCount = metadata.getLong(REVEALED_COUNT);
+        return board;
+    }
+    /**
+     * This method remembers the first click so that it and its neighbors are never mines, which is the only thing
+     * that has to happen before the first reveal.
+     */
+    public void initialize(int firstRow, int firstCol) {
+        if (this.initialized) {
+            return;
+        }
+        this.firstRow = firstRow;
+        this.firstCol = firstCol;
+        this.initialized = true;
+    }
+    /**
+     * This method returns whether the cell at the given coordinate is a mine, by hashing the seed with the coordinate
+     * and comparing it with the density. Cells next to the first click are never mines.
+     */
+    public boolean isMine(int row, int col) {
+        if (!this.isValid(row, col)) {
+            return false;
+        }
+        if (this.initialized && Math.abs(row - this.firstRow) <= 1 && Math.abs(col - this.firstCol) <= 1) {
+            return false;
+        }
+        long h = this.seed + row * 0x9E3779B97F4A7C15L + col * 0xC2B2AE3D27D4EB4FL;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        h = h ^ (h >>> 31);
+        return (h >>> 11) < this.mineThreshold;
+    }
+    /**
+     * This method counts the mines around the cell at the given coordinate.
+     */
+    public int getClue(int row, int col) {
+        int count = 0;
+        for (int k = 0; k < 8; k++) {
+            if (this.isMine(row + DR[k], col + DC[k])) {
+                count++;
+            }
+        }
+        return count;
+    }
+    /**
+     * This method returns the stored state of the cell at the given coordinate.
+     */
+    private byte getState(int row, int col) {
+        return this.cells.get(row, col);
+    }
+    /**
+     * This method sets the stored state of the cell at the given coordinate.
+     */
+    private void setState(int row, int col, byte value) {
+        this.cells.set(row, col, value);
+    }
+    /**
+     * This method returns whether the cell at the given coordinate is revealed.
+     */
+    public boolean isRevealed(int row, int col) {
+        return (this.getState(row, col) & LazyChunk.REVEALED) != 0;
+    }
+    /**
+     * This method returns whether the cell at the given coordinate is flagged.
+     */
+    public boolean isFlagged(int row, int col) {
+        return (this.getState(row, col) & LazyChunk.FLAGGED) != 0;
+    }
+    /**
+     * This method reveals the cell at the given coordinate, placing the mines around it first if this is the first
+     * click. Revealing a mine ends the game, and revealing a cell with no mines around it keeps revealing outwards
+     * like EmptyCell does. It returns how many cells were revealed.
+     */
+    public long reveal(int row, int col) {
+        if (this.gameOver || !this.isValid(row, col)) {
+            return 0;
+        }
+        this.initialize(row, col);
+        byte state = this.getState(row, col);
+        if (state != 0) {
+            return 0;
+        }
+        this.setState(row, col, LazyChunk.REVEALED);
+        this.revealedCount++;
+        if (this.isMine(row, col)) {
+            this.gameOver = true;
+            return 1;
+        }
+        long revealed = 1;
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        queue.add(new int[]{row, col});
+        while (!queue.isEmpty()) {
+            int[] coords = queue.poll();
+            if (this.getClue(coords[0], coords[1]) != 0) {
+                continue;
+            }
+            for (int k = 0; k < 8; k++) {
+                int i = coords[0] + DR[k];
+                int j = coords[1] + DC[k];
+                if (this.isValid(i, j) && this.getState(i, j) == 0) {
+                    this.setState(i, j, LazyChunk.REVEALED);
+                    this.revealedCount++;
+                    revealed++;
+                    queue.add(new int[]{i, j});
+                }
+            }
+        }
+        return revealed;
+    }
+    /**
+     * This method places or removes a flag on a hidden cell.
+     */
+    public void toggleFlag(int row, int col) {
+        if (this.gameOver || !this.isValid(row, col)) {
+            return;
+        }
+        byte state = this.getState(row, col);
+        if ((state & LazyChunk.REVEALED) != 0) {
+            return;
+        }
+        this.setState(row, col, (byte) (state ^ LazyChunk.FLAGGED));
+        this.flagCount += (state & LazyChunk.FLAGGED) != 0 ? -1 : 1;
+    }
+    /**
+     * This method checks for if the row and column taken as parameters is within the edges.
+     */
+    private boolean isValid(int row, int col) {
+        return row >= 0 && row < this.rows && col >= 0 && col < this.cols;
+    }
+    /**
+     * This method writes the state of a board kept in a file out to the file, so it can be opened again later.
+     */
+    public void flush() {
+        if (this.metadata != null) {
+            this.metadata.putDouble(DENSITY, this.density);
+            this.metadata.putLong(SEED, this.seed);
+            this.metadata.put(INITIALIZED, (byte) (this.initialized ? 1 : 0));
+            this.metadata.putInt(FIRST_ROW, this.firstRow);
+            this.metadata.putInt(FIRST_COL, this.firstCol);
+            this.metadata.put(GAME_OVER, (byte) (this.gameOver ? 1 : 0));
+            this.metadata.putLong(FLAG_COUNT, this.flagCount);
+            this.metadata.putLong(REVEALED_COUNT, this.revealedCount);
+        }
+        this.cells.flush();
+    }
+    /**
+     * This method saves a board kept in a file and closes it, or deletes the chunks of any other board that were
+     * spilled to disk. The board cannot be used afterwards.
+     */
+    public void close() {
+        this.flush();
+        this.cells.close();
+    }
+    /**
+     * This method is a getter method for the number of rows.
+     */
+    public int getRows() { return this.rows; }
+    /**
+     * This method is a getter method for the number of columns.
+     */
+    public int getCols() { return this.cols; }
+    /**
+     * This method is a getter method for the chance of each cell being a mine.
+     */
+    public double getDensity() { return this.density; }
+    /**
+     * This method is a getter method for whether the first click was made.
+     */
+    public boolean isInitialized() { return this.initialized; }
+    /**
+     * This method is a getter method for whether a mine was revealed.
+     */
+    public boolean isGameOver() { return this.gameOver; }
+    /**
+     * This method is a getter method for the number of flags placed.
+     */
+    public long getFlags() { return this.flagCount; }
+    /**
+     * This method is a getter method for the number of cells revealed.
+     */
+    public long getRevealedCount() { return this.revealedCount; }
+    /**
+     * This method is a getter method for how many chunks or tiles of cells are held in memory right now.
+     */
+    public int getTilesInMemory() { return this.cells.getTilesInMemory(); }
+}
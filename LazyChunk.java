@@ -0,0 +1,52 @@
+package minesweeper;
+
+/**
+ * This class is one square block of a LazyBoard, storing whether each of its cells is revealed or flagged in one
+ * byte per cell. Mines and numbers are not stored since the board can work them out from its seed.
+ */
+class LazyChunk {
+    static final int SIZE = Constants.LAZY_CHUNK_SIZE;
+    static final byte REVEALED = 1;
+    static final byte FLAGGED = 2;
+    private byte[] state;
+    private boolean dirty;
+
+    /**
+     * This method is the constructor which makes a chunk where every cell is hidden and unflagged.
+     */
+    public LazyChunk() {
+        this(new byte[SIZE * SIZE]);
+    }
+    /**
+     * This method is the constructor which makes a chunk from state that was saved to disk.
+     */
+    public LazyChunk(byte[] state) {
+        this.state = state;
+        this.dirty = false;
+    }
+    /**
+     * This method returns the state of the cell at the given position inside the chunk.
+     */
+    public byte get(int row, int col) {
+        return this.state[row * SIZE + col];
+    }
+    /**
+     * This method sets the state of the cell at the given position inside the chunk and marks the chunk as changed.
+     */
+    public void set(int row, int col, byte value) {
+        this.state[row * SIZE + col] = value;
+        this.dirty = true;
+    }
+    /**
+     * This getter method returns the state of every cell, row by row.
+     */
+    public byte[] getState() {
+        return this.state;
+    }
+    /**
+     * This getter method returns whether the chunk changed since it was made or loaded.
+     */
+    public boolean isDirty() {
+        return this.dirty;
+    }
+}
@@ -0,0 +1,203 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * This class is a command line load generator for the game server. It opens many sessions at once and each session
+ * plays expert boards with random reveals and flags, sending its next command as soon as the answer to the last one
+ * arrives. At the end it prints how many commands per second were played and the latency percentiles of a command
+ * from sending it to reading its answer. Run it with the number of sessions, the number of seconds, and the port of
+ * a running server, for example "10000 10 7070". Without a port it starts a server of its own in this process.
+ */
+public class LoadGenerator {
+    private int sessionCount;
+    private int seconds;
+    private int port;
+    private LatencyHistogram latency;
+    private long commands;
+    private long games;
+    private long errors;
+
+    /**
+     * This class is one session of the load generator, which is its random moves, when its last command was sent,
+     * and the part of an answer that was read so far.
+     */
+    private static class Client {
+        private Random random;
+        private long sentAt;
+        private StringBuilder answer;
+
+        private Client(long seed) {
+            this.random = new Random(seed);
+            this.sentAt = 0;
+            this.answer = new StringBuilder();
+        }
+    }
+
+    /**
+     * This method is the constructor which stores how many sessions to open, for how long to play, and the port of
+     * the server.
+     */
+    public LoadGenerator(int sessionCount, int seconds, int port) {
+        this.sessionCount = sessionCount;
+        this.seconds = seconds;
+        this.port = port;
+        this.latency = new LatencyHistogram();
+        this.commands = 0;
+        this.games = 0;
+        this.errors = 0;
+    }
+    /**
+     * This method starts the load generator from the command line.
+     */
+    public static void main(String[] args) throws IOException {
+        int sessionCount = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        GameServer server = null;
+        int port;
+        if (args.length > 2) {
+            port = Integer.parseInt(args[2]);
+        }
+        else {
+            server = new GameServer(0);
+            server.start();
+            port = server.getPort();
+        }
+        try {
+            new LoadGenerator(sessionCount, seconds, port).run();
+        }
+        finally {
+            if (server != null) {
+                server.stop();
+                System.out.println(Metrics.dump());
+            }
+        }
+    }
+    /**
+     * This method opens every session, plays until the time is up, and prints the report.
+     */
+    public void run() throws IOException {
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), this.port);
+        Selector selector = Selector.open();
+        List<SocketChannel> channels = new ArrayList<>();
+        ByteBuffer input = ByteBuffer.allocate(4096);
+        try {
+            for (int k = 0; k < this.sessionCount; k++) {
+                SocketChannel channel = SocketChannel.open(address);
+                channel.socket().setTcpNoDelay(true);
+                channel.configureBlocking(false);
+                channels.add(channel);
+                channel.register(selector, SelectionKey.OP_READ, new Client(k));
+            }
+            System.out.println("Opened " + channels.size() + " sessions");
+            long start = System.nanoTime();
+            long end = start + this.seconds * 1_000_000_000L;
+            for (SelectionKey key : selector.keys()) {
+                this.send(key, this.newGameCommand((Client) key.attachment()));
+            }
+            while (System.nanoTime() < end) {
+                selector.select(100);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    this.read(key, input);
+                }
+            }
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            this.report(elapsed);
+        }
+        finally {
+            for (SocketChannel channel : channels) {
+                channel.close();
+            }
+            selector.close();
+        }
+    }
+    /**
+     * This method reads the answers that arrived for a session, records the latency of each, and sends the next
+     * command.
+     */
+    private void read(SelectionKey key, ByteBuffer input) throws IOException {
+        Client client = (Client) key.attachment();
+        input.clear();
+        int count = ((SocketChannel) key.channel()).read(input);
+        if (count < 0) {
+            key.cancel();
+            return;
+        }
+        for (int k = 0; k < count; k++) {
+            char c = (char) input.get(k);
+            if (c != '\n') {
+                client.answer.append(c);
+                continue;
+            }
+            long now = System.nanoTime();
+            this.latency.record(now - client.sentAt);
+            this.commands++;
+            String answer = client.answer.toString();
+            client.answer.setLength(0);
+            if (answer.startsWith("ERR")) {
+                this.errors++;
+            }
+            if (answer.startsWith("OK PLAYING")) {
+                this.send(key, this.moveCommand(client));
+            }
+            else {
+                this.games++;
+                this.send(key, this.newGameCommand(client));
+            }
+        }
+    }
+    /**
+     * This method returns the command that starts a new expert game.
+     */
+    private String newGameCommand(Client client) {
+        return "NEW " + Constants.HARD_ROWS + " " + Constants.HARD_COLS + " " + Constants.HARD_MINES + " "
+                + client.random.nextLong();
+    }
+    /**
+     * This method returns a random reveal or, one time in ten, a random flag.
+     */
+    private String moveCommand(Client client) {
+        int row = client.random.nextInt(Constants.HARD_ROWS);
+        int col = client.random.nextInt(Constants.HARD_COLS);
+        String command = client.random.nextInt(10) == 0 ? "FLAG " : "REVEAL ";
+        return command + row + " " + col;
+    }
+    /**
+     * This method sends one command of a session and remembers when it was sent. Commands are small enough that the
+     * socket always takes them whole.
+     */
+    private void send(SelectionKey key, String command) throws IOException {
+        Client client = (Client) key.attachment();
+        ByteBuffer bytes = ByteBuffer.wrap((command + "\n").getBytes(StandardCharsets.US_ASCII));
+        client.sentAt = System.nanoTime();
+        while (bytes.hasRemaining()) {
+            ((SocketChannel) key.channel()).write(bytes);
+        }
+    }
+    /**
+     * This method prints the throughput and latency of the run.
+     */
+    private void report(double elapsed) {
+        System.out.println(String.format(Locale.ROOT, "%d sessions, %.1f s, %d commands, %d games, %d errors",
+                this.sessionCount, elapsed, this.commands, this.games, this.errors));
+        System.out.println(String.format(Locale.ROOT, "%.0f commands/s", this.commands / elapsed));
+        System.out.println(String.format(Locale.ROOT, "latency p50 %.3f ms, p99 %.3f ms, max %.3f ms",
+                this.latency.getPercentileNanos(0.50) / 1e6, this.latency.getPercentileNanos(0.99) / 1e6,
+                this.latency.getMaxNanos() / 1e6));
+    }
+}
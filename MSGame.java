@@ -1,14 +1,14 @@
 package minesweeper;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Scanner;
 
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
 import javafx.animation.ScaleTransition;
-import javafx.animation.Timeline;
 import javafx.event.ActionEvent;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -32,21 +32,36 @@ public class MSGame {
     private Label mineCounter;
     private Label timerLabel;
     private Button faceButton;
-    private Timeline timer;
-    private Timeline aiMoveTimeline;
-    private int seconds;
+    private GameClock clock;
+    private Runnable clockTask;
+    private Runnable mineRevealTask;
+    private long lastClockRefresh;
     private int currentRows;
     private int currentCols;
     private int currentMines;
     private HintAI hintAI;
+    private Solver solver;
+    private AnalysisService hintAnalysis;
+    private AnalysisService moveAnalysis;
     private boolean aiHintsEnabled;
     private boolean autoPlay;
     private boolean gameWon;
+    private boolean hintsShown;
+    private boolean throttled;
+    private boolean[][] dirty;
+    private int[] dirtyCells;
+    private int dirtyCount;
+    private long lastFlush;
+    private Runnable flushTask;
+    private GameEventReader events;
+    private int previewRow;
+    private int previewCol;
     private MSGame playerGame;
-    private MSGame aiGame;
+    private List<MSGame> aiGames;
+    private GameRecord record;
     private Stage stage;
-    private int sessionBestTime;
-    private int allTimeBestTime;
+    private long sessionBestTime;
+    private long allTimeBestTime;
 
     /**
      * This method is a constructor that sets certain default values when called in PaneOrganizer.java.
@@ -54,13 +69,18 @@ public class MSGame {
     public MSGame(Stage stage) {
         this.stage = stage;
         this.aiHintsEnabled = false;
-        this.sessionBestTime = 999;
+        this.sessionBestTime = Constants.NO_BEST_TIME;
         this.allTimeBestTime = this.loadAllTimeBest();
+        this.aiGames = new ArrayList<>();
+        if (stage != null) {
+            stage.setOnCloseRequest(e -> this.saveGame());
+        }
     }
 
     /**
      * This method is a constructor that initializes all necessary values when a game instance begins and is
-     * controlled internally in this class.
+     * controlled internally in this class. A throttled game batches its cell updates and draws them a few times a
+     * second, which keeps many AI boards in versus mode cheap to render.
      */
     private MSGame(int rows, int cols, int mines,
                    Pane[][] cellPanes,
@@ -68,7 +88,8 @@ public class MSGame {
                    Label mineCounter,
                    Label timerLabel,
                    Button faceButton,
-                   boolean autoPlay) {
+                   boolean autoPlay,
+                   boolean throttled) {
         this.currentRows = rows;
         this.currentCols = cols;
         this.currentMines = mines;
@@ -78,11 +99,27 @@ public class MSGame {
         this.timerLabel = timerLabel;
         this.faceButton = faceButton;
         this.autoPlay = autoPlay;
-        this.seconds = 0;
+        this.clock = new GameClock();
+        this.clockTask = this::refreshClock;
+        this.mineRevealTask = this::drawMineReveal;
         this.hintAI = new HintAI();
+        this.solver = this.hintAI;
+        this.hintAnalysis = new AnalysisService();
+        this.moveAnalysis = new AnalysisService();
         this.aiHintsEnabled = false;
         this.wasFlagged = new boolean[rows][cols];
         this.gameWon = false;
+        this.hintsShown = false;
+        this.previewRow = -1;
+        this.previewCol = -1;
+        this.throttled = throttled;
+        if (throttled) {
+            this.dirty = new boolean[rows][cols];
+            this.dirtyCells = new int[rows * cols];
+            this.dirtyCount = 0;
+            this.flushTask = this::flushCells;
+            UiPulse.add(this.flushTask);
+        }
         this.setupGame();
     }
     /**
@@ -94,7 +131,7 @@ public class MSGame {
                             Label mineCounter, Label timerLabel, Button faceButton) {
         this.stopAllGames();
         this.playerGame = new MSGame(rows, cols, mines, cellPanes, cellTexts,
-                mineCounter, timerLabel, faceButton, false);
+                mineCounter, timerLabel, faceButton, false, false);
         this.playerGame.setHints(this.aiHintsEnabled);
         if (this.stage != null) {
             this.stage.sizeToScene();
@@ -105,48 +142,52 @@ public class MSGame {
      * This method starts a tutorial game by resetting all current games, passing in necessary values, and turning
      * on autoplay.
      */
-    public void startTutorial(int rows, int cols, int mines,
+    public MSGame startTutorial(int rows, int cols, int mines,
                                 Pane[][] cellPanes, Text[][] cellTexts,
                                 Label mineCounter, Label timerLabel, Button faceButton) {
         this.stopAllGames();
         faceButton.setText("🤖");
         this.playerGame = new MSGame(rows, cols, mines, cellPanes, cellTexts,
-                mineCounter, timerLabel, faceButton, true);
+                mineCounter, timerLabel, faceButton, true, false);
         this.playerGame.setHints(this.aiHintsEnabled);
         if (this.stage != null) {
             this.stage.sizeToScene();
         }
+        return this.playerGame;
     }
     /**
-     * This method starts a versus game by resetting all current games and starting two game instances side by side,
-     * one allowing player input and the other being on auto play with no user input allowed besides resetting with
-     * the face button.
+     * This method starts a versus game by resetting all current games and starting a game for the player and one
+     * for each AI opponent, the player's game allowing input and the others being on auto play with no user input
+     * allowed besides resetting with the face button. All AI games share one worker pool for their decisions and
+     * draw their boards in batches.
      */
-    public MSGame[] startVersus(int rows, int cols, int mines,
-                                VBox playerBox, VBox aiBox,
-                                Pane[][] playerPanes, Text[][] playerTexts,
-                                Pane[][] aiPanes, Text[][] aiTexts) {
+    public MSGame startVersus(int rows, int cols, int mines,
+                              VBox playerBox, Pane[][] playerPanes, Text[][] playerTexts,
+                              List<VBox> aiBoxes, List<Pane[][]> aiPanes, List<Text[][]> aiTexts) {
         this.stopAllGames();
         HBox playerTop = (HBox) playerBox.getChildren().get(1);
         Label playerMineCounter = (Label) playerTop.getChildren().get(0);
         Button playerFaceButton = (Button) playerTop.getChildren().get(1);
         Label playerTimerLabel = (Label) playerTop.getChildren().get(2);
-        HBox aiTop = (HBox) aiBox.getChildren().get(1);
-        Label aiMineCounter = (Label) aiTop.getChildren().get(0);
-        Button aiFaceButton = (Button) aiTop.getChildren().get(1);
-        Label aiTimerLabel = (Label) aiTop.getChildren().get(2);
         this.playerGame = new MSGame(rows, cols, mines,
                 playerPanes, playerTexts, playerMineCounter, playerTimerLabel, playerFaceButton,
-                false);
-        this.aiGame = new MSGame(rows, cols, mines,
-                aiPanes, aiTexts, aiMineCounter, aiTimerLabel, aiFaceButton,
-                true);
+                false, false);
         this.playerGame.setHints(this.aiHintsEnabled);
-        this.aiGame.setHints(this.aiHintsEnabled);
+        for (int k = 0; k < aiBoxes.size(); k++) {
+            HBox aiTop = (HBox) aiBoxes.get(k).getChildren().get(1);
+            Label aiMineCounter = (Label) aiTop.getChildren().get(0);
+            Button aiFaceButton = (Button) aiTop.getChildren().get(1);
+            Label aiTimerLabel = (Label) aiTop.getChildren().get(2);
+            MSGame aiGame = new MSGame(rows, cols, mines,
+                    aiPanes.get(k), aiTexts.get(k), aiMineCounter, aiTimerLabel, aiFaceButton,
+                    true, true);
+            aiGame.setHints(this.aiHintsEnabled);
+            this.aiGames.add(aiGame);
+        }
         if (this.stage != null) {
             this.stage.sizeToScene();
         }
-        return new MSGame[]{this.playerGame, this.aiGame};
+        return this.playerGame;
     }
     /**
      * This method enables hints and toggles them for existing game instances.
@@ -156,8 +197,8 @@ public class MSGame {
         if (this.playerGame != null) {
             this.playerGame.setHints(enabled);
         }
-        if (this.aiGame != null) {
-            this.aiGame.setHints(enabled);
+        for (MSGame aiGame : this.aiGames) {
+            aiGame.setHints(enabled);
         }
     }
     /**
@@ -176,27 +217,35 @@ public class MSGame {
             this.playerGame.stopTimers();
             this.playerGame = null;
         }
-        if (this.aiGame != null) {
-            this.aiGame.stopTimers();
-            this.aiGame = null;
+        for (MSGame aiGame : this.aiGames) {
+            aiGame.stopTimers();
+            if (aiGame.flushTask != null) {
+                UiPulse.remove(aiGame.flushTask);
+            }
         }
+        this.aiGames.clear();
     }
     /**
      * This method sets up the game by initializing all components such as the board, counters, buttons, timer, and
      * autoplay if enabled in tutorial/versus mode.
      */
     private void setupGame() {
-        this.board = new Board(this.currentRows, this.currentCols, this.currentMines, this);
+        if (this.board != null && this.board.getRows() == this.currentRows
+                && this.board.getCols() == this.currentCols && this.board.getNumMines() == this.currentMines) {
+            this.board.reset();
+        }
+        else {
+            this.board = new Board(this.currentRows, this.currentCols, this.currentMines, this);
+        }
+        this.events = this.board.getEvents().newReader();
+        this.record = this.autoPlay ? null : new GameRecord(System.getProperty("user.name"), this.currentRows,
+                this.currentCols, this.currentMines);
         this.mineCounter.setText(String.format("%03d", this.currentMines));
         this.timerLabel.setText("000");
         this.faceButton.setText("🙂");
         this.faceButton.setOnAction((ActionEvent e) -> this.restart());
-        for (int i = 0; i < this.currentRows; i++) {
-            for (int j = 0; j < this.currentCols; j++) {
-                this.updateCell(i, j);
-            }
-        }
-        this.setupTimer();
+        this.redrawAll();
+        this.setupClock();
         this.refreshHints();
         if (this.autoPlay) {
             this.aiMove();
@@ -210,27 +259,17 @@ public class MSGame {
         if (this.board.isGameOver()) {
             return;
         }
+        this.board.beginMove();
         if (!this.board.isInitialized()) {
             this.board.initialize(row, col);
-            for (int i = 0; i < this.currentRows; i++) {
-                for (int j = 0; j < this.currentCols; j++) {
-                    this.updateCell(i, j);
-                }
-            }
-            if (this.timer != null) {
-                this.timer.play();
-            }
-            Cell cell = this.board.getCell(row, col);
-            if (cell != null && !cell.isFlagged()) {
-                cell.reveal(this.board);
-            }
-            this.refreshHints();
-            return;
-        }
-        Cell cell = this.board.getCell(row, col);
-        if (cell != null && !cell.isFlagged()) {
-            cell.reveal(this.board);
-        }
+            this.redrawAll();
+            this.startClock();
+        }
+        this.clock.markMove();
+        this.recordMove(GameRecord.REVEAL, row, col);
+        this.board.reveal(row, col);
+        this.board.endMove();
+        this.drainEvents();
         this.refreshHints();
     }
     /**
@@ -241,11 +280,177 @@ public class MSGame {
         if (!this.board.isInitialized() || this.board.isGameOver()) {
             return;
         }
+        this.clock.markMove();
+        this.recordMove(GameRecord.FLAG, row, col);
+        this.board.beginMove();
         this.board.toggleFlag(row, col);
+        this.board.endMove();
+        this.drainEvents();
     }
     /**
-     * This method updates the cell at the given coordinates in the parameters, and sets necessary texts and emojis
-     * and styling the cell panes.
+     * This method handles a chord on a revealed number, revealing every hidden cell around it when the flags around
+     * it already match the number.
+     */
+    public void handleChord(int row, int col) {
+        if (!this.board.isInitialized() || this.board.isGameOver()) {
+            return;
+        }
+        this.clock.markMove();
+        this.recordMove(GameRecord.CHORD, row, col);
+        this.board.beginMove();
+        this.board.chord(row, col);
+        this.board.endMove();
+        this.drainEvents();
+        this.refreshHints();
+    }
+    /**
+     * This method returns whether the cell at the given coordinate is a revealed number that a chord can be made on.
+     */
+    public boolean canChord(int row, int col) {
+        if (!this.board.isInitialized() || this.board.isGameOver()) {
+            return false;
+        }
+        Cell cell = this.board.getCell(row, col);
+        return cell != null && cell.isRevealed() && cell.getClueValue() > 0;
+    }
+    /**
+     * This method shows which cells a chord on the given coordinate would reveal by drawing the hidden cells around
+     * it as pressed, moving the preview there if it was shown somewhere else.
+     */
+    public void showChordPreview(int row, int col) {
+        if (row == this.previewRow && col == this.previewCol) {
+            return;
+        }
+        this.clearChordPreview();
+        if (this.board.isGameOver() || this.cellPanes == null) {
+            return;
+        }
+        this.previewRow = row;
+        this.previewCol = col;
+        for (int i = row - 1; i <= row + 1; i++) {
+            for (int j = col - 1; j <= col + 1; j++) {
+                Cell cell = this.board.getCell(i, j);
+                if (cell != null && !cell.isRevealed() && !cell.isFlagged()) {
+                    this.cellPanes[i][j].setStyle(
+                            "-fx-background-color: #BEBEBE;" +
+                                    "-fx-border-color: #808080;" +
+                                    "-fx-border-width: 1;");
+                }
+            }
+        }
+    }
+    /**
+     * This method removes the chord preview if one is shown by drawing the cells it pressed again.
+     */
+    public void clearChordPreview() {
+        if (this.previewRow < 0) {
+            return;
+        }
+        for (int i = this.previewRow - 1; i <= this.previewRow + 1; i++) {
+            for (int j = this.previewCol - 1; j <= this.previewCol + 1; j++) {
+                this.updateCell(i, j);
+            }
+        }
+        this.previewRow = -1;
+        this.previewCol = -1;
+    }
+    /**
+     * This method returns whether a chord preview is being shown.
+     */
+    public boolean isChordPreviewShown() {
+        return this.previewRow >= 0;
+    }
+    /**
+     * This method undoes the last move of the player's game if there is one, which is not allowed in autoplay or
+     * versus mode.
+     */
+    public void undo() {
+        if (this.playerGame != null && !this.playerGame.autoPlay && this.aiGames.isEmpty()) {
+            this.playerGame.undoMove();
+        }
+    }
+    /**
+     * This method undoes the last move on this game's board, and if that move ended the game it also resets the
+     * face button and starts the clock again.
+     */
+    private void undoMove() {
+        boolean wasOver = this.board.isGameOver();
+        if (!this.board.undo()) {
+            return;
+        }
+        this.recordMove(GameRecord.UNDO, -1, -1);
+        UiPulse.remove(this.mineRevealTask);
+        if (wasOver && !this.board.isGameOver()) {
+            this.faceButton.setText("🙂");
+            this.gameWon = false;
+            this.startClock();
+        }
+        this.drainEvents();
+        this.updateMineCounter();
+    }
+    /**
+     * This method resumes a saved game by restoring the board from the snapshot and continuing the clock from the
+     * saved time.
+     */
+    public void resume(BoardSnapshot snapshot) {
+        // the moves before the save were not recorded, so the rest of the game is not either
+        this.record = null;
+        this.board.restore(snapshot);
+        this.clock.setElapsedMillis(snapshot.getElapsedMillis());
+        this.showClock();
+        if (this.board.isInitialized() && !this.board.isGameOver()) {
+            this.startClock();
+        }
+        this.drainEvents();
+        this.updateMineCounter();
+    }
+    /**
+     * This method saves the player's single player game to a file in the user's home folder when it is still in
+     * progress, so that it can be resumed the next time the game starts, and otherwise removes any old save.
+     */
+    public void saveGame() {
+        File file = this.getSaveFile();
+        MSGame game = this.playerGame;
+        if (game == null || game.autoPlay || !this.aiGames.isEmpty()
+                || !game.board.isInitialized() || game.board.isGameOver()) {
+            file.delete();
+            return;
+        }
+        try {
+            game.board.snapshot(game.clock.getElapsedMillis()).save(file);
+        }
+        catch (IOException e) {
+            file.delete();
+        }
+    }
+    /**
+     * This method loads the saved game if there is one and deletes the save file so it is only resumed once,
+     * returning null if there is no saved game.
+     */
+    public BoardSnapshot loadSavedGame() {
+        File file = this.getSaveFile();
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            return BoardSnapshot.load(file);
+        }
+        catch (IOException e) {
+            return null;
+        }
+        finally {
+            file.delete();
+        }
+    }
+    /**
+     * This getter method returns the file in the user's home folder that stores the saved game.
+     */
+    private File getSaveFile() {
+        return new File(System.getProperty("user.home"), ".minesweeper_save.dat");
+    }
+    /**
+     * This method updates the cell at the given coordinates in the parameters, drawing it right away or, for a
+     * throttled game, remembering it so it is drawn with the next batch.
      */
     public void updateCell(int row, int col) {
         if (this.cellPanes == null || this.cellTexts == null) {
@@ -254,6 +459,90 @@ public class MSGame {
         if (row < 0 || row >= this.currentRows || col < 0 || col >= this.currentCols) {
             return;
         }
+        if (this.throttled) {
+            if (!this.dirty[row][col]) {
+                this.dirty[row][col] = true;
+                this.dirtyCells[this.dirtyCount] = row * this.currentCols + col;
+                this.dirtyCount++;
+            }
+            return;
+        }
+        this.drawCell(row, col);
+    }
+    /**
+     * This method draws every cell whose update was put off, at most once every few frames, and is run by the
+     * shared UiPulse for throttled games.
+     */
+    private void flushCells() {
+        long now = System.nanoTime();
+        if (this.dirtyCount == 0 || now - this.lastFlush < Constants.AI_RENDER_INTERVAL_MILLIS * 1_000_000L) {
+            return;
+        }
+        this.lastFlush = now;
+        for (int k = 0; k < this.dirtyCount; k++) {
+            int row = this.dirtyCells[k] / this.currentCols;
+            int col = this.dirtyCells[k] % this.currentCols;
+            this.dirty[row][col] = false;
+            this.drawCell(row, col);
+        }
+        this.dirtyCount = 0;
+    }
+    /**
+     * This method reads the events the board put on its event ring since the last time, drawing every cell that was
+     * revealed, flagged or hidden by an undo, ending the game when it was won or lost, and updating the mine counter
+     * after flags. It draws the whole board instead when the board asked for it or when the ring filled up before it
+     * was read.
+     */
+    private void drainEvents() {
+        boolean redraw = false;
+        boolean flagged = false;
+        GameEventType ending = null;
+        while (this.events.poll()) {
+            GameEventType type = this.events.getType();
+            if (type == GameEventType.REVEALED || type == GameEventType.FLAGGED || type == GameEventType.HIDDEN) {
+                if (!redraw) {
+                    this.updateCell(this.events.getRow(), this.events.getCol());
+                }
+                flagged = flagged || type == GameEventType.FLAGGED;
+            }
+            else if (type == GameEventType.REDRAW) {
+                redraw = true;
+            }
+            else {
+                ending = type;
+            }
+        }
+        if (this.events.takeMissed() > 0) {
+            redraw = true;
+        }
+        if (redraw) {
+            this.redrawAll();
+        }
+        if (flagged) {
+            this.updateMineCounter();
+        }
+        if (ending != null) {
+            this.onGameOver(ending == GameEventType.WON);
+        }
+    }
+    /**
+     * This method updates every cell on the board.
+     */
+    private void redrawAll() {
+        long start = System.nanoTime();
+        for (int i = 0; i < this.currentRows; i++) {
+            for (int j = 0; j < this.currentCols; j++) {
+                this.updateCell(i, j);
+            }
+        }
+        Metrics.UI_REDRAW_ALL.stop(start, this.currentRows * this.currentCols);
+    }
+    /**
+     * This method draws the cell at the given coordinates in the parameters, and sets necessary texts and emojis
+     * and styling the cell panes.
+     */
+    private void drawCell(int row, int col) {
+        Metrics.UI_CELL_DRAWS.add(1);
         Cell cell = this.board.getCell(row, col);
         Pane pane = this.cellPanes[row][col];
         Text text = this.cellTexts[row][col];
@@ -305,34 +594,58 @@ public class MSGame {
         this.refreshHints();
     }
     /**
-     * This method sets up the timer that runs when a game is initiated, formatting its text and starting the timeline.
+     * This method sets up the clock that runs when a game is initiated, setting it back to zero. The clock is shown
+     * by a task on the shared UiPulse rather than a timeline of its own.
      */
-    private void setupTimer() {
-        if (this.timer != null) {
-            this.timer.stop();
-        }
-        this.seconds = 0;
+    private void setupClock() {
+        this.stopClock();
+        this.clock.reset();
         this.timerLabel.setText("000");
-        this.timer = new Timeline(new KeyFrame(Duration.seconds(1), (ActionEvent e) -> {
-            this.seconds++;
-            if (this.seconds > 999) {
-                this.seconds = 999;
-            }
-            this.timerLabel.setText(String.format("%03d", this.seconds));
-        }));
-        this.timer.setCycleCount(Animation.INDEFINITE);
+    }
+    /**
+     * This method starts the clock and the task that shows it.
+     */
+    private void startClock() {
+        this.clock.start();
+        UiPulse.add(this.clockTask);
+    }
+    /**
+     * This method pauses the clock, removes the task that shows it, and shows the final time.
+     */
+    private void stopClock() {
+        this.clock.stop();
+        UiPulse.remove(this.clockTask);
+        this.showClock();
+    }
+    /**
+     * This method shows the clock at most once every few frames, and is run by the shared UiPulse while the clock
+     * is running.
+     */
+    private void refreshClock() {
+        long now = System.nanoTime();
+        if (now - this.lastClockRefresh < Constants.CLOCK_REFRESH_MILLIS * 1_000_000L) {
+            return;
+        }
+        this.lastClockRefresh = now;
+        this.showClock();
+    }
+    /**
+     * This method shows the whole seconds on the clock in the timer label, stopping at 999.
+     */
+    private void showClock() {
+        long shown = Math.min(999, this.clock.getElapsedMillis() / 1000);
+        String text = String.format("%03d", shown);
+        if (!text.equals(this.timerLabel.getText())) {
+            this.timerLabel.setText(text);
+        }
     }
     /**
      * This method updates different components like the timer, timeline, and facebutton when a game is over and
      * resets the calculations for hints.
      */
     public void onGameOver(boolean won) {
-        if (this.timer != null) {
-            this.timer.stop();
-        }
-        if (this.aiMoveTimeline != null) {
-            this.aiMoveTimeline.stop();
-        }
+        this.stopClock();
+        this.moveAnalysis.cancel();
         if (won){
             this.faceButton.setText("😎");
         }
@@ -342,8 +655,46 @@ public class MSGame {
         if (won && !this.autoPlay) {
             this.gameWon = true;
         }
+        if (this.board.isRevealingMines()) {
+            UiPulse.add(this.mineRevealTask);
+        }
+        this.saveRecord(won);
        this.refreshHints();
     }
+    /**
+     * This method draws the mines the board revealed since the last frame while the mine reveal animation runs, and
+     * is run by the shared UiPulse until the animation is done, since no move comes to read the events after the game
+     * is lost.
+     */
+    private void drawMineReveal() {
+        this.drainEvents();
+        if (!this.board.isRevealingMines()) {
+            UiPulse.remove(this.mineRevealTask);
+        }
+    }
+    /**
+     * This method adds a move of the player to the record of the game, with the time into the game it was made.
+     */
+    private void recordMove(char kind, int row, int col) {
+        if (this.record != null) {
+            this.record.addMove(kind, row, col, this.clock.getElapsedMillis());
+        }
+    }
+    /**
+     * This method appends the record of the player's finished game to the games log in the user's home folder, which
+     * GameAnalyzer reads, and stops recording until the next game is set up.
+     */
+    private void saveRecord(boolean won) {
+        if (this.record == null) {
+            return;
+        }
+        this.record.finish(this.board, won, this.clock.getElapsedMillis());
+        try {
+            this.record.appendTo(new File(System.getProperty("user.home"), ".minesweeper_games.log"));
+        }
+        catch (Exception e) {}
+        this.record = null;
+    }
     /**
      * This method returns whether the game has been won and resets the gameWon variable if necessary.
      */
@@ -355,10 +706,29 @@ public class MSGame {
         return false;
     }
     /**
-     * This getter method returns the time elapsed since game started.
+     * This getter method returns the time elapsed since game started in milliseconds.
      */
-    public int getTime() {
-        return this.seconds;
+    public long getTime() {
+        return this.clock.getElapsedMillis();
+    }
+    /**
+     * This getter method returns the clock of the game, which holds when each move was made and the histogram of
+     * the think time between moves.
+     */
+    public GameClock getClock() {
+        return this.clock;
+    }
+    /**
+     * This getter method returns the number of rows of the board.
+     */
+    public int getRows() {
+        return this.currentRows;
+    }
+    /**
+     * This getter method returns the number of columns of the board.
+     */
+    public int getCols() {
+        return this.currentCols;
     }
     /**
      * This getter method returns if autoplay is on.
@@ -368,11 +738,10 @@ public class MSGame {
     }
     /**
      * This method restarts the game by resetting all conditions of timer and timeline if they exist and resets
-     * texts and values to default settings, then setting up a new game.
+     * texts and values to default settings, then setting up a new game on the same board cleared in place.
      */
     private void restart() {
         this.stopTimers();
-        this.seconds = 0;
         this.timerLabel.setText("000");
         this.faceButton.setText("🙂");
         this.setupGame();
@@ -381,170 +750,150 @@ public class MSGame {
      * This method stops all timers and timelines if they exist.
      */
     private void stopTimers() {
-        if (this.timer != null) {
-            this.timer.stop();
-        }
-        if (this.aiMoveTimeline != null) {
-            this.aiMoveTimeline.stop();
+        this.stopClock();
+        if (this.board != null) {
+            this.board.stopMineReveal();
         }
+        UiPulse.remove(this.mineRevealTask);
+        this.hintAnalysis.cancel();
+        this.moveAnalysis.cancel();
     }
     /**
      * This method refreshes the hints given to the user through highlighting certain cells green or red depending
-     * on if they are the safest or most dangerous option to reveal or flag.
+     * on if they are the safest or most dangerous option to reveal or flag. Old highlights are cleared right away and
+     * the hints are computed in the background, cancelling any older hint computation since the board has changed.
      */
     private void refreshHints() {
         if (this.board == null || this.cellPanes == null) {
             return;
         }
-        for (int i = 0; i < this.currentRows; i++) {
-            for (int j = 0; j < this.currentCols; j++) {
-                this.updateCell(i, j);
-            }
+        if (this.hintsShown) {
+            this.redrawAll();
+            this.hintsShown = false;
         }
         if (!this.aiHintsEnabled || !this.board.isInitialized() || this.board.isGameOver()) {
+            this.hintAnalysis.cancel();
+            return;
+        }
+        this.hintAnalysis.request(this.board.snapshot(0),
+                (Board copy) -> HintResult.analyze(copy, this.hintAI), this::showHints);
+    }
+    /**
+     * This method highlights the dangerous cells and the safest cell found by a finished hint computation,
+     * skipping cells that are no longer hidden.
+     */
+    private void showHints(HintResult result) {
+        if (!this.aiHintsEnabled || this.board.isGameOver()) {
             return;
         }
-        double minRisk = 0.8;
-        List<Cell> dangerousCells = this.hintAI.getDangerousCells(this.board, minRisk);
-        for (Cell cell : dangerousCells) {
+        this.hintsShown = true;
+        for (int[] coord : result.getDangerous()) {
+            Cell cell = this.board.getCell(coord[0], coord[1]);
             if (cell.isRevealed() || cell.isFlagged()) {
                 continue;
             }
-            Pane pane = this.cellPanes[cell.getRow()][cell.getCol()];
+            Pane pane = this.cellPanes[coord[0]][coord[1]];
             pane.setStyle(
                     "-fx-background-color: #FFCCCC;" +
                             "-fx-border-color: #FF0000;" +
                             "-fx-border-width: 2;");
         }
-        Cell safest = this.hintAI.getHint(this.board);
-        if (safest != null && !safest.isRevealed() && !safest.isFlagged()) {
-            Pane pane = this.cellPanes[safest.getRow()][safest.getCol()];
-            pane.setStyle(
-                    "-fx-background-color: #CCFFCC;" +
-                            "-fx-border-color: #00AA00;" +
-                            "-fx-border-width: 2;");
+        int[] safest = result.getSafest();
+        if (safest != null) {
+            Cell cell = this.board.getCell(safest[0], safest[1]);
+            if (!cell.isRevealed() && !cell.isFlagged()) {
+                Pane pane = this.cellPanes[safest[0]][safest[1]];
+                pane.setStyle(
+                        "-fx-background-color: #CCFFCC;" +
+                                "-fx-border-color: #00AA00;" +
+                                "-fx-border-width: 2;");
+            }
         }
     }
     /**
-     * This method handles the AI player's movement by prioritizing first flagging most dangerous cells and then
-     * revealing safest cell options, continuing until the game is over.
+     * This method handles the AI player's movement by asking the solver for its next move, continuing until the game
+     * is over. The board is copied right after the last move, and the decision is computed on the shared worker pool
+     * after a random delay so every AI plays at its own pace, then the move is made on the JavaFX thread.
      */
     private void aiMove() {
         if (this.board == null || this.board.isGameOver()) {
             return;
         }
-        double delay = 0.5 + Math.random();
-        this.aiMoveTimeline = new Timeline(
-                new KeyFrame(Duration.seconds(delay), (ActionEvent e) -> {
-                    if (this.board == null || this.board.isGameOver()) {
-                        return;
-                    }
-                    if (this.timer != null && this.seconds == 0 && !this.board.isInitialized()) {
-                        this.timer.play();
-                    }
-                    boolean madeMove = false;
-                    // first click center to initialize the board
-                    if (!this.board.isInitialized()) {
-                        int startRow = this.currentRows / 2;
-                        int startCol = this.currentCols / 2;
-                        this.handleLeftClick(startRow, startCol);
-                        madeMove = true;
-                    }
-                    else {
-                        // then try to flag dangerous cells
-                        List<Cell> dangerous = this.hintAI.getDangerousCells(this.board, 0.99);
-                        for (Cell cell : dangerous) {
-                            if (!cell.isRevealed() && !cell.isFlagged()
-                                    && this.board.getFlags() < this.currentMines) {
-                                int i = cell.getRow();
-                                int j = cell.getCol();
-                                this.board.toggleFlag(i, j);
-                                this.refreshHints();
-                                madeMove = true;
-                                break;
-                            }
-                        }
-
-                        // if nothing to flag, click the safest cell
-                        if (!madeMove) {
-                            Cell safest = this.hintAI.getHint(this.board);
-                            if (safest != null && !safest.isRevealed() && !safest.isFlagged()) {
-                                this.handleLeftClick(safest.getRow(), safest.getCol());
-                                madeMove = true;
-                            }
-                        }
-
-                        // if still nothing, pick a random unrevealed/unflagged cell
-                        if (!madeMove) {
-                            Cell[][] grid = this.board.getGrid();
-                            int attempts = 0;
-                            while (attempts < 1000) {
-                                int i = (int) (Math.random() * this.currentRows);
-                                int j = (int) (Math.random() * this.currentCols);
-                                Cell cell = grid[i][j];
-                                if (!cell.isRevealed() && !cell.isFlagged()) {
-                                    this.handleLeftClick(i, j);
-                                    madeMove = true;
-                                    break;
-                                }
-                                attempts++;
-                            }
-                        }
-                    }
-                    // move again if move is made and the game isn't over
-                    if (madeMove && !this.board.isGameOver()) {
-                        this.aiMove();
-                    }
-                })
-        );
-        this.aiMoveTimeline.setCycleCount(1);
-        this.aiMoveTimeline.play();
+        long delay = Constants.AI_MIN_DELAY_MILLIS
+                + (long) (Math.random() * (Constants.AI_MAX_DELAY_MILLIS - Constants.AI_MIN_DELAY_MILLIS));
+        this.moveAnalysis.request(this.board.snapshot(0), delay, this.solver::chooseMove, this::applyAIMove);
+    }
+    /**
+     * This method makes the AI player's move once the solver has chosen it, flagging or clicking the cell, and then
+     * schedules the next move if the game isn't over.
+     */
+    private void applyAIMove(Move move) {
+        if (move == null || this.board == null || this.board.isGameOver()) {
+            return;
+        }
+        Cell cell = this.board.getCell(move.getRow(), move.getCol());
+        if (cell == null || cell.isRevealed()) {
+            return;
+        }
+        if (move.isFlag()) {
+            this.handleRightClick(move.getRow(), move.getCol());
+        }
+        else {
+            this.handleLeftClick(move.getRow(), move.getCol());
+        }
+        // move again if the game isn't over
+        if (!this.board.isGameOver()) {
+            this.aiMove();
+        }
     }
     /**
      * This method records the best score in a variable and saves the all time best time by creating a file in the
-     * user's home file and writing the best time on it, ensuring that the score saves across different runs.
+     * user's home file and writing the best time on it in seconds to the millisecond, ensuring that the score saves
+     * across different runs.
      */
-    public void recordWin(int time) {
-        if (time < this.sessionBestTime) {
-            this.sessionBestTime = time;
+    public void recordWin(long millis) {
+        if (millis < this.sessionBestTime) {
+            this.sessionBestTime = millis;
         }
 
-        if (time < this.allTimeBestTime) {
-            this.allTimeBestTime = time;
+        if (millis < this.allTimeBestTime) {
+            this.allTimeBestTime = millis;
             try {
                 String userHome = System.getProperty("user.home");
                 File file = new File(userHome, ".minesweeper_best.txt");
                 PrintWriter writer = new PrintWriter(file);
-                writer.println(this.allTimeBestTime);
+                writer.println(GameClock.format(this.allTimeBestTime));
                 writer.close();
             }
             catch (Exception e) {}
         }
     }
     /**
-     * This getter method returns the session best time.
+     * This getter method returns the session best time in milliseconds.
      */
-    public int getSessionBestTime() {
+    public long getSessionBestTime() {
         return this.sessionBestTime;
     }
     /**
-     * This getter method returns the all time best time.
+     * This getter method returns the all time best time in milliseconds.
      */
-    public int getAllTimeBestTime() {
+    public long getAllTimeBestTime() {
         return this.allTimeBestTime;
     }
     /**
-     * This method loads the all time best time if there already is a text file saved storing the integer value,
-     * otherwise return 999 which means there is no best time yet.
+     * This method loads the all time best time in milliseconds if there already is a text file saved storing it in
+     * seconds, which may be a whole number from older versions, otherwise return NO_BEST_TIME which means there is
+     * no best time yet.
      */
-    private int loadAllTimeBest() {
+    private long loadAllTimeBest() {
         try {
             String userHome = System.getProperty("user.home");
             File file = new File(userHome, ".minesweeper_best.txt");
             if (file.exists()) {
                 Scanner scanner = new Scanner(file);
-                if (scanner.hasNextInt()) {
-                    int best = scanner.nextInt();
+                scanner.useLocale(Locale.ROOT);
+                if (scanner.hasNextDouble()) {
+                    long best = Math.round(scanner.nextDouble() * 1000);
                     scanner.close();
                     return best;
                 }
@@ -552,6 +901,6 @@ public class MSGame {
             }
         }
         catch (Exception e) {}
-        return 999;
+        return Constants.NO_BEST_TIME;
     }
 }
@@ -0,0 +1,235 @@
+package minesweeper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class keeps the state of a LazyBoard in a file that is mapped into memory, so a board larger than the heap
+ * can be played and saved boards open instantly without being read in. It is only a store for LazyBoard: Board keeps
+ * a cell object for every cell, which a board larger than the heap cannot have, so Board is not backed by it. The
+ * file starts with a header page and then holds the board in square tiles of one byte per cell, each tile stored in
+ * one piece so a flood fill stays within a few pages. Runs of tiles are mapped when first used, and the least
+ * recently used runs are written out and let go once too many are mapped, their mappings being released by the
+ * garbage collector. The file is sparse, so tiles that were never touched take no disk space.
+ */
+class MappedTileStore implements CellStore {
+    private static final int MAGIC = 0x4D535750;
+    private static final int FILE_VERSION = 1;
+    private static final int HEADER_BYTES = 4096;
+    private static final int METADATA_OFFSET = 16;
+    private static final int TILE = Constants.LAZY_CHUNK_SIZE;
+    private static final int TILE_BYTES = TILE * TILE;
+    private static final int TILES_PER_SEGMENT = Constants.MAPPED_TILES_PER_SEGMENT;
+    private RandomAccessFile file;
+    private FileChannel channel;
+    private MappedByteBuffer header;
+    private int rows;
+    private int cols;
+    private int tileCols;
+    private long fileLength;
+    private LinkedHashMap<Long, Segment> segments;
+    private long lastIndex;
+    private Segment lastSegment;
+
+    /**
+     * This class is one run of tiles that is mapped into memory, remembering whether it was written to since it was
+     * last flushed.
+     */
+    private static class Segment {
+        private MappedByteBuffer buffer;
+        private boolean dirty;
+
+        private Segment(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+            this.dirty = false;
+        }
+    }
+
+    private MappedTileStore(RandomAccessFile file, int rows, int cols) throws IOException {
+        this.file = file;
+        this.channel = file.getChannel();
+        this.rows = rows;
+        this.cols = cols;
+        this.tileCols = (cols + TILE - 1) / TILE;
+        long tileRows = (rows + TILE - 1) / TILE;
+        this.fileLength = HEADER_BYTES + tileRows * this.tileCols * TILE_BYTES;
+        this.header = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        this.segments = new LinkedHashMap<>(16, 0.75f, true);
+        this.lastIndex = -1;
+        this.lastSegment = null;
+    }
+    /**
+     * This method makes a new file for a board of the given size, replacing the file if it exists. Every cell starts
+     * hidden and unflagged.
+     */
+    public static MappedTileStore create(File path, int rows, int cols) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(path, "rw");
+        file.setLength(0);
+        MappedTileStore store = new MappedTileStore(file, rows, cols);
+        file.setLength(store.fileLength);
+        store.header.putInt(0, MAGIC);
+        store.header.putInt(4, FILE_VERSION);
+        store.header.putInt(8, rows);
+        store.header.putInt(12, cols);
+        return store;
+    }
+    /**
+     * This method opens a file made by the create method, only reading its header, and throws an IOException if the
+     * file is not a saved board.
+     */
+    public static MappedTileStore open(File path) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(path, "rw");
+        try {
+            if (file.length() < HEADER_BYTES) {
+                throw new IOException("Not a saved board");
+            }
+            file.seek(0);
+            if (file.readInt() != MAGIC || file.readInt() != FILE_VERSION) {
+                throw new IOException("Not a saved board");
+            }
+            int rows = file.readInt();
+            int cols = file.readInt();
+            if (rows <= 0 || cols <= 0) {
+                throw new IOException("Invalid board size");
+            }
+            MappedTileStore store = new MappedTileStore(file, rows, cols);
+            if (file.length() != store.fileLength) {
+                throw new IOException("Saved board is the wrong size");
+            }
+            return store;
+        }
+        catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+    /**
+     * This method returns the part of the header page after the board size, where the board keeps the rest of its
+     * state. It is mapped, so anything put in it is saved with the tiles.
+     */
+    public ByteBuffer getMetadata() {
+        return this.header.slice(METADATA_OFFSET, HEADER_BYTES - METADATA_OFFSET);
+    }
+    /**
+     * This method returns the state of the cell at the given coordinate.
+     */
+    @Override
+    public byte get(int row, int col) {
+        long tile = (long) (row / TILE) * this.tileCols + col / TILE;
+        Segment segment = this.segmentOf(tile);
+        return segment.buffer.get(this.offsetOf(tile, row, col));
+    }
+    /**
+     * This method sets the state of the cell at the given coordinate.
+     */
+    @Override
+    public void set(int row, int col, byte value) {
+        long tile = (long) (row / TILE) * this.tileCols + col / TILE;
+        Segment segment = this.segmentOf(tile);
+        segment.buffer.put(this.offsetOf(tile, row, col), value);
+        segment.dirty = true;
+    }
+    /**
+     * This method returns where the cell at the given coordinate is inside the segment holding its tile.
+     */
+    private int offsetOf(long tile, int row, int col) {
+        return (int) (tile % TILES_PER_SEGMENT) * TILE_BYTES + (row % TILE) * TILE + col % TILE;
+    }
+    /**
+     * This method returns the mapped segment holding the given tile, mapping it if needed. The last segment used is
+     * remembered since a flood fill usually stays within it.
+     */
+    private Segment segmentOf(long tile) {
+        long index = tile / TILES_PER_SEGMENT;
+        if (index == this.lastIndex) {
+            return this.lastSegment;
+        }
+        Segment segment = this.segments.get(index);
+        if (segment == null) {
+            long start = HEADER_BYTES + index * TILES_PER_SEGMENT * TILE_BYTES;
+            long size = Math.min((long) TILES_PER_SEGMENT * TILE_BYTES, this.fileLength - start);
+            try {
+                segment = new Segment(this.channel.map(FileChannel.MapMode.READ_WRITE, start, size));
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.segments.put(index, segment);
+            this.evict();
+        }
+        this.lastIndex = index;
+        this.lastSegment = segment;
+        return segment;
+    }
+    /**
+     * This method writes out and lets go of the least recently used segments until no more than the limit are
+     * mapped. Segments that were not written to are let go without writing. A segment that is let go is unmapped
+     * once the garbage collector finds nothing refers to it.
+     */
+    private void evict() {
+        Iterator<Map.Entry<Long, Segment>> it = this.segments.entrySet().iterator();
+        while (this.segments.size() > Constants.MAPPED_SEGMENTS_IN_MEMORY && it.hasNext()) {
+            Segment segment = it.next().getValue();
+            if (segment.dirty) {
+                segment.buffer.force();
+            }
+            if (segment == this.lastSegment) {
+                this.lastIndex = -1;
+                this.lastSegment = null;
+            }
+            it.remove();
+        }
+    }
+    /**
+     * This method writes every segment that was written to, and the header, out to the file.
+     */
+    @Override
+    public void flush() {
+        for (Segment segment : this.segments.values()) {
+            if (segment.dirty) {
+                segment.buffer.force();
+                segment.dirty = false;
+            }
+        }
+        this.header.force();
+    }
+    /**
+     * This method flushes the file and closes it.
+     */
+    @Override
+    public void close() {
+        this.flush();
+        this.segments.clear();
+        this.lastIndex = -1;
+        this.lastSegment = null;
+        try {
+            this.file.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    /**
+     * This getter method returns how many tiles are mapped right now.
+     */
+    @Override
+    public int getTilesInMemory() {
+        return this.segments.size() * TILES_PER_SEGMENT;
+    }
+    /**
+     * This method is a getter method for the number of rows.
+     */
+    public int getRows() { return this.rows; }
+    /**
+     * This method is a getter method for the number of columns.
+     */
+    public int getCols() { return this.cols; }
+}
@@ -0,0 +1,111 @@
+package minesweeper;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is one named measurement in the Metrics registry. A timer records how long an operation took in
+ * nanoseconds and also sends it to Java Flight Recorder, a distribution records plain values such as how many cells
+ * a move revealed, and a counter only counts how many times something happened.
+ */
+public class Metric {
+    /**
+     * This enum lists the kinds of measurement a metric can make.
+     */
+    public enum Kind {
+        TIMER, DISTRIBUTION, COUNTER
+    }
+
+    private String name;
+    private Kind kind;
+    private LatencyHistogram histogram;
+    private LongAdder total;
+
+    /**
+     * This method is the constructor which makes an empty metric with the given name and kind.
+     */
+    Metric(String name, Kind kind) {
+        this.name = name;
+        this.kind = kind;
+        this.histogram = new LatencyHistogram();
+        this.total = new LongAdder();
+    }
+    /**
+     * This method records the time since the given System.nanoTime value for a timer.
+     */
+    public void stop(long startNanos) {
+        this.stop(startNanos, 0);
+    }
+    /**
+     * This method records the time since the given System.nanoTime value for a timer, along with how many cells the
+     * operation touched, which is only shown in the flight recording.
+     */
+    public void stop(long startNanos, long cells) {
+        long nanos = System.nanoTime() - startNanos;
+        this.record(nanos);
+        OperationEvent event = new OperationEvent();
+        if (event.isEnabled()) {
+            event.operation = this.name;
+            event.timeTaken = nanos;
+            event.cells = cells;
+            event.commit();
+        }
+    }
+    /**
+     * This method adds one value to the histogram of the metric.
+     */
+    public void record(long value) {
+        synchronized (this.histogram) {
+            this.histogram.record(value);
+        }
+        this.total.increment();
+    }
+    /**
+     * This method adds the given amount to a counter.
+     */
+    public void add(long amount) {
+        this.total.add(amount);
+    }
+    /**
+     * This method removes everything the metric has recorded.
+     */
+    public void clear() {
+        synchronized (this.histogram) {
+            this.histogram.clear();
+        }
+        this.total.reset();
+    }
+    /**
+     * This getter method returns the name of the metric.
+     */
+    public String getName() {
+        return this.name;
+    }
+    /**
+     * This getter method returns the kind of the metric.
+     */
+    public Kind getKind() {
+        return this.kind;
+    }
+    /**
+     * This getter method returns how many values were recorded, or the total of a counter.
+     */
+    public long getTotal() {
+        return this.total.sum();
+    }
+    /**
+     * This getter method returns the value that the given fraction of recorded values are at or below.
+     */
+    public long getPercentile(double fraction) {
+        synchronized (this.histogram) {
+            return this.histogram.getPercentileNanos(fraction);
+        }
+    }
+    /**
+     * This getter method returns the largest recorded value.
+     */
+    public long getMax() {
+        synchronized (this.histogram) {
+            return this.histogram.getMaxNanos();
+        }
+    }
+}
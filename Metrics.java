@@ -0,0 +1,87 @@
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * This class is the registry of every metric measured while the game runs, such as how long board operations and
+ * hint computations take, how many cells each reveal uncovers, and how many cells are drawn. Metrics are made once
+ * and kept in static fields by the classes that use them, so recording a value never has to look anything up.
+ */
+public class Metrics {
+    private static final List<Metric> METRICS = new ArrayList<>();
+
+    public static final Metric BOARD_INITIALIZE = timer("board.initialize");
+    public static final Metric BOARD_REVEAL = timer("board.reveal");
+    public static final Metric BOARD_REVEAL_CELLS = distribution("board.revealCells");
+    public static final Metric BOARD_CHECK_WIN = timer("board.checkWin");
+    public static final Metric HINT_SAFEST = timer("hint.safest");
+    public static final Metric HINT_DANGEROUS = timer("hint.dangerous");
+    public static final Metric UI_REDRAW_ALL = timer("ui.redrawAll");
+    public static final Metric UI_CELL_DRAWS = counter("ui.cellDraws");
+    public static final Metric SERVER_COMMAND = timer("server.command");
+    public static final Metric EVENTS_MISSED = counter("events.missed");
+    public static final Metric ENDGAME_SOLVE = timer("endgame.solve");
+    public static final Metric FRONTIER_HITS = counter("frontier.hits");
+    public static final Metric FRONTIER_MISSES = counter("frontier.misses");
+
+    private Metrics() {
+    }
+    /**
+     * This method makes and registers a metric that times an operation.
+     */
+    public static Metric timer(String name) {
+        return register(new Metric(name, Metric.Kind.TIMER));
+    }
+    /**
+     * This method makes and registers a metric that records plain values.
+     */
+    public static Metric distribution(String name) {
+        return register(new Metric(name, Metric.Kind.DISTRIBUTION));
+    }
+    /**
+     * This method makes and registers a metric that counts how often something happens.
+     */
+    public static Metric counter(String name) {
+        return register(new Metric(name, Metric.Kind.COUNTER));
+    }
+    /**
+     * This method adds a metric to the registry.
+     */
+    private static synchronized Metric register(Metric metric) {
+        METRICS.add(metric);
+        return metric;
+    }
+    /**
+     * This method removes everything recorded by every metric.
+     */
+    public static synchronized void clear() {
+        for (Metric metric : METRICS) {
+            metric.clear();
+        }
+    }
+    /**
+     * This method returns a table of every metric with its count and its 50th and 99th percentiles, timers in
+     * microseconds and distributions as plain values, for the metrics window or to print from the command line.
+     */
+    public static synchronized String dump() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%-20s %10s %12s %12s %12s%n", "Metric", "Count", "p50", "p99", "Max"));
+        for (Metric metric : METRICS) {
+            if (metric.getKind() == Metric.Kind.COUNTER) {
+                out.append(String.format(Locale.ROOT, "%-20s %10d%n", metric.getName(), metric.getTotal()));
+            }
+            else if (metric.getKind() == Metric.Kind.TIMER) {
+                out.append(String.format(Locale.ROOT, "%-20s %10d %9.1f us %9.1f us %9.1f us%n", metric.getName(),
+                        metric.getTotal(), metric.getPercentile(0.5) / 1000.0, metric.getPercentile(0.99) / 1000.0,
+                        metric.getMax() / 1000.0));
+            }
+            else {
+                out.append(String.format(Locale.ROOT, "%-20s %10d %12d %12d %12d%n", metric.getName(),
+                        metric.getTotal(), metric.getPercentile(0.5), metric.getPercentile(0.99), metric.getMax()));
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,395 @@
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class estimates the chance that each hidden cell is a mine by sampling whole mine layouts that agree with
+ * every revealed number and the number of mines left, for boards where trying every layout would take too long.
+ * Each thread runs its own Markov chain with an independent SplittableRandom stream. A step moves one mine to
+ * another hidden cell and is accepted with a probability based on how many numbers the layout breaks, and layouts
+ * that break no numbers are counted as samples. Since moving a mine is symmetric, the counted layouts are uniform
+ * over all layouts that fit the board. The chains of every sampler run on one shared pool of daemon threads, so an
+ * estimate does not pay for starting threads of its own.
+ */
+public class MineProbabilitySampler {
+    private static final double TEMPERATURE = 0.6;
+    private static final int STEPS_PER_SAMPLE = 20;
+    private static final int SAMPLES_PER_BATCH = 200;
+    private static final double Z_95 = 1.96;
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), (Runnable task) -> {
+                Thread thread = new Thread(task, "minesweeper-sampler");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private int threads;
+    private long seed;
+
+    /**
+     * This method is the constructor which sets how many chains run at once and the seed their random streams are
+     * split from.
+     */
+    public MineProbabilitySampler(int threads, long seed) {
+        this.threads = Math.max(1, threads);
+        this.seed = seed;
+    }
+    /**
+     * This method samples the board until the time budget in milliseconds runs out or the sample budget is reached,
+     * whichever comes first, and returns the estimate, or null if no layout that fits the board was found.
+     */
+    public ProbabilityEstimate estimate(Board board, long timeBudgetMillis, long sampleBudget) {
+        Constraints constraints = new Constraints(board);
+        if (constraints.unknown == 0 || constraints.remaining < 0 || constraints.remaining > constraints.unknown) {
+            return null;
+        }
+        long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+        long perChain = Math.max(1, sampleBudget / this.threads);
+        SplittableRandom master = new SplittableRandom(this.seed);
+        List<Chain> chains = new ArrayList<>();
+        for (int t = 0; t < this.threads; t++) {
+            chains.add(new Chain(constraints, master.split(), deadline, perChain));
+        }
+        if (this.threads == 1) {
+            chains.get(0).run();
+        }
+        else {
+            List<Future<?>> futures = new ArrayList<>();
+            try {
+                for (Chain chain : chains) {
+                    futures.add(POOL.submit(chain));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            catch (InterruptedException e) {
+                // the caller was cancelled, which it still has to see once the estimate is given up
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            catch (ExecutionException e) {
+                return null;
+            }
+            finally {
+                // stops the chains that are still running when the estimate was given up
+                for (Future<?> future : futures) {
+                    future.cancel(true);
+                }
+            }
+        }
+        return this.combine(board, constraints, chains);
+    }
+    /**
+     * This method adds up the mine counts of every chain into probabilities, and uses the spread between the batch
+     * averages of all chains to give each estimate a confidence interval that accounts for correlated samples. The
+     * spread comes from the sums of the batch averages and of their squares, so no batch is kept on its own.
+     */
+    private ProbabilityEstimate combine(Board board, Constraints constraints, List<Chain> chains) {
+        int u = constraints.unknown;
+        long samples = 0;
+        long[] totals = new long[u];
+        double[] meanSums = new double[u];
+        double[] meanSquareSums = new double[u];
+        int batches = 0;
+        for (Chain chain : chains) {
+            samples += chain.samples;
+            for (int k = 0; k < u; k++) {
+                totals[k] += chain.totalCounts[k];
+                meanSums[k] += chain.meanSums[k];
+                meanSquareSums[k] += chain.meanSquareSums[k];
+            }
+            batches += chain.batches;
+        }
+        if (samples == 0) {
+            return null;
+        }
+        double[][] probability = new double[board.getRows()][board.getCols()];
+        double[][] halfWidth = new double[board.getRows()][board.getCols()];
+        for (double[] row : probability) {
+            Arrays.fill(row, Double.NaN);
+        }
+        for (double[] row : halfWidth) {
+            Arrays.fill(row, Double.NaN);
+        }
+        for (int k = 0; k < u; k++) {
+            double p = (double) totals[k] / samples;
+            double half;
+            if (batches >= 2) {
+                // the sum of the squared differences from p, worked out from the two sums
+                double sumSquares = Math.max(0, meanSquareSums[k] - 2 * p * meanSums[k] + batches * p * p);
+                half = Z_95 * Math.sqrt(sumSquares / (batches - 1) / batches);
+            }
+            else {
+                half = Z_95 * Math.sqrt(p * (1 - p) / samples);
+            }
+            int row = constraints.cellRow[k];
+            int col = constraints.cellCol[k];
+            probability[row][col] = p;
+            halfWidth[row][col] = half;
+        }
+        return new ProbabilityEstimate(probability, halfWidth, samples);
+    }
+
+    /**
+     * This class turns the board into indexed hidden cells and the revealed numbers that touch them, stored as flat
+     * arrays so the chains can check a move quickly.
+     */
+    private static class Constraints {
+        private int unknown;
+        private int remaining;
+        private int[] cellRow;
+        private int[] cellCol;
+        private int[] need;
+        private int[] cellStart;
+        private int[] cellConstraints;
+
+        Constraints(Board board) {
+            int rows = board.getRows();
+            int cols = board.getCols();
+            int[][] index = new int[rows][cols];
+            List<int[]> cells = new ArrayList<>();
+            int flags = 0;
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    Cell cell = board.getCell(i, j);
+                    index[i][j] = -1;
+                    if (cell.isFlagged()) {
+                        flags++;
+                    }
+                    else if (!cell.isRevealed()) {
+                        index[i][j] = cells.size();
+                        cells.add(new int[]{i, j});
+                    }
+                }
+            }
+            this.unknown = cells.size();
+            this.remaining = board.getNumMines() - flags;
+            this.cellRow = new int[this.unknown];
+            this.cellCol = new int[this.unknown];
+            for (int k = 0; k < this.unknown; k++) {
+                this.cellRow[k] = cells.get(k)[0];
+                this.cellCol[k] = cells.get(k)[1];
+            }
+            List<Integer> needs = new ArrayList<>();
+            List<List<Integer>> byCell = new ArrayList<>();
+            for (int k = 0; k < this.unknown; k++) {
+                byCell.add(new ArrayList<>());
+            }
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    Cell cell = board.getCell(i, j);
+                    if (!cell.isRevealed() || cell.isMine()) {
+                        continue;
+                    }
+                    int flagged = 0;
+                    List<Integer> members = new ArrayList<>();
+                    for (int[] n : board.getNeighborCoords(i, j)) {
+                        if (board.getCell(n[0], n[1]).isFlagged()) {
+                            flagged++;
+                        }
+                        else if (index[n[0]][n[1]] >= 0) {
+                            members.add(index[n[0]][n[1]]);
+                        }
+                    }
+                    if (members.isEmpty()) {
+                        continue;
+                    }
+                    int c = needs.size();
+                    needs.add(Math.max(0, cell.getClueValue()) - flagged);
+                    for (int member : members) {
+                        byCell.get(member).add(c);
+                    }
+                }
+            }
+            this.need = new int[needs.size()];
+            for (int c = 0; c < this.need.length; c++) {
+                this.need[c] = needs.get(c);
+            }
+            this.cellStart = new int[this.unknown + 1];
+            int total = 0;
+            for (int k = 0; k < this.unknown; k++) {
+                this.cellStart[k] = total;
+                total += byCell.get(k).size();
+            }
+            this.cellStart[this.unknown] = total;
+            this.cellConstraints = new int[total];
+            for (int k = 0; k < this.unknown; k++) {
+                List<Integer> list = byCell.get(k);
+                for (int m = 0; m < list.size(); m++) {
+                    this.cellConstraints[this.cellStart[k] + m] = list.get(m);
+                }
+            }
+        }
+    }
+
+    /**
+     * This class is one Markov chain that keeps a full mine layout over the hidden cells, with the mines and the
+     * empty cells kept in two lists so a random mine and a random empty cell can be picked in constant time.
+     */
+    private static class Chain implements Runnable {
+        private Constraints constraints;
+        private SplittableRandom random;
+        private long deadline;
+        private long sampleBudget;
+        private int[] count;
+        private int[] position;
+        private int[] cells;
+        private long[] totalCounts;
+        private long[] batchCounts;
+        private int batchSize;
+        private double[] meanSums;
+        private double[] meanSquareSums;
+        private int batches;
+        private long samples;
+        private int violation;
+
+        Chain(Constraints constraints, SplittableRandom random, long deadline, long sampleBudget) {
+            this.constraints = constraints;
+            this.random = random;
+            this.deadline = deadline;
+            this.sampleBudget = sampleBudget;
+            this.totalCounts = new long[constraints.unknown];
+            this.batchCounts = new long[constraints.unknown];
+            this.meanSums = new double[constraints.unknown];
+            this.meanSquareSums = new double[constraints.unknown];
+            this.batches = 0;
+        }
+        /**
+         * This method places the mines at random and then keeps stepping, counting a sample every few steps while
+         * the layout fits every number, until a budget runs out.
+         */
+        @Override
+        public void run() {
+            this.placeRandomly();
+            long steps = 0;
+            while (this.samples < this.sampleBudget) {
+                if ((steps & 255) == 0 && (System.nanoTime() > this.deadline
+                        || Thread.currentThread().isInterrupted())) {
+                    break;
+                }
+                this.step();
+                steps++;
+                if (this.violation == 0 && steps % STEPS_PER_SAMPLE == 0) {
+                    this.record();
+                }
+            }
+            this.finish();
+        }
+        /**
+         * This method puts the remaining mines on random hidden cells. The cells array holds the mines first and
+         * the empty cells after them, and position says where each cell is in that array.
+         */
+        private void placeRandomly() {
+            int u = this.constraints.unknown;
+            this.cells = new int[u];
+            this.position = new int[u];
+            for (int k = 0; k < u; k++) {
+                this.cells[k] = k;
+            }
+            for (int k = u - 1; k > 0; k--) {
+                int other = this.random.nextInt(k + 1);
+                int swap = this.cells[k];
+                this.cells[k] = this.cells[other];
+                this.cells[other] = swap;
+            }
+            for (int k = 0; k < u; k++) {
+                this.position[this.cells[k]] = k;
+            }
+            this.count = new int[this.constraints.need.length];
+            for (int k = 0; k < this.constraints.remaining; k++) {
+                this.addMine(this.cells[k], 1);
+            }
+            this.violation = 0;
+            for (int c = 0; c < this.count.length; c++) {
+                this.violation += Math.abs(this.count[c] - this.constraints.need[c]);
+            }
+        }
+        /**
+         * This method moves a random mine to a random empty cell and keeps the move if it breaks fewer numbers, or
+         * with a chance that falls quickly with how many more numbers it breaks.
+         */
+        private void step() {
+            int mines = this.constraints.remaining;
+            int u = this.constraints.unknown;
+            if (mines == 0 || mines == u) {
+                return;
+            }
+            int from = this.cells[this.random.nextInt(mines)];
+            int to = this.cells[mines + this.random.nextInt(u - mines)];
+            int before = this.localViolation(from) + this.localViolation(to);
+            this.addMine(from, -1);
+            this.addMine(to, 1);
+            int after = this.localViolation(from) + this.localViolation(to);
+            int delta = after - before;
+            if (delta > 0 && this.random.nextDouble() >= Math.exp(-delta / TEMPERATURE)) {
+                this.addMine(to, -1);
+                this.addMine(from, 1);
+                return;
+            }
+            this.violation += delta;
+            int fromPosition = this.position[from];
+            int toPosition = this.position[to];
+            this.cells[fromPosition] = to;
+            this.cells[toPosition] = from;
+            this.position[to] = fromPosition;
+            this.position[from] = toPosition;
+        }
+        /**
+         * This method changes the mine count of every number next to the given cell.
+         */
+        private void addMine(int cell, int amount) {
+            for (int m = this.constraints.cellStart[cell]; m < this.constraints.cellStart[cell + 1]; m++) {
+                this.count[this.constraints.cellConstraints[m]] += amount;
+            }
+        }
+        /**
+         * This method returns how far off the numbers next to the given cell are. A number next to both cells of a
+         * move is counted twice before and after, which does not change the difference.
+         */
+        private int localViolation(int cell) {
+            int total = 0;
+            for (int m = this.constraints.cellStart[cell]; m < this.constraints.cellStart[cell + 1]; m++) {
+                int c = this.constraints.cellConstraints[m];
+                total += Math.abs(this.count[c] - this.constraints.need[c]);
+            }
+            return total;
+        }
+        /**
+         * This method counts the current layout as a sample and closes the batch when it is full.
+         */
+        private void record() {
+            for (int k = 0; k < this.constraints.remaining; k++) {
+                this.batchCounts[this.cells[k]]++;
+            }
+            this.samples++;
+            this.batchSize++;
+            if (this.batchSize == SAMPLES_PER_BATCH) {
+                for (int k = 0; k < this.constraints.unknown; k++) {
+                    double mean = (double) this.batchCounts[k] / this.batchSize;
+                    this.meanSums[k] += mean;
+                    this.meanSquareSums[k] += mean * mean;
+                    this.totalCounts[k] += this.batchCounts[k];
+                    this.batchCounts[k] = 0;
+                }
+                this.batches++;
+                this.batchSize = 0;
+            }
+        }
+        /**
+         * This method adds the samples of the batch that was not full yet to the totals when the chain stops.
+         */
+        private void finish() {
+            for (int k = 0; k < this.constraints.unknown; k++) {
+                this.totalCounts[k] += this.batchCounts[k];
+                this.batchCounts[k] = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package minesweeper;
+
+/**
+ * This class reveals the mines of a lost game from left to right in a wave, using one task on the shared frame
+ * pulse instead of a timeline per column. The mines are listed in the order they appear in the sweep when the
+ * animation is made, and each frame reveals the ones whose column has been reached, up to a fixed number per frame
+ * so a very large board cannot stall the screen. The mines are revealed through the board, which puts them on its
+ * event ring for the controller to draw and sends them to the spectators.
+ */
+class MineRevealAnimation implements Runnable {
+    private Board board;
+    private Cell[] mines;
+    private int next;
+    private long startNanos;
+
+    /**
+     * This method is the constructor which collects the hidden, unflagged mines of the board column by column, so
+     * the animation only has to walk the list from the front.
+     */
+    public MineRevealAnimation(Board board) {
+        Cell[][] grid = board.getGrid();
+        int rows = board.getRows();
+        int cols = board.getCols();
+        int count = 0;
+        Cell[] found = new Cell[rows * cols];
+        for (int col = 0; col < cols; col++) {
+            for (int row = 0; row < rows; row++) {
+                Cell cell = grid[row][col];
+                if (cell.isMine() && !cell.isFlagged() && !cell.isRevealed()) {
+                    found[count] = cell;
+                    count++;
+                }
+            }
+        }
+        this.board = board;
+        this.mines = new Cell[count];
+        System.arraycopy(found, 0, this.mines, 0, count);
+        this.next = 0;
+    }
+    /**
+     * This method starts the animation on the shared frame pulse.
+     */
+    public void start() {
+        this.startNanos = System.nanoTime();
+        if (this.mines.length > 0) {
+            UiPulse.add(this);
+        }
+    }
+    /**
+     * This method stops the animation, leaving any mines it has not reached yet hidden.
+     */
+    public void stop() {
+        UiPulse.remove(this);
+    }
+    /**
+     * This method returns whether every mine has been shown.
+     */
+    public boolean isFinished() {
+        return this.next == this.mines.length;
+    }
+    /**
+     * This method runs once per frame, revealing every mine whose column the wave has reached, but no more than the
+     * frame budget, and stops the animation once every mine is shown. The mines are only marked revealed and put on
+     * the event ring, so the game over logic is not run again.
+     */
+    @Override
+    public void run() {
+        long elapsedMillis = (System.nanoTime() - this.startNanos) / 1_000_000L;
+        int reachedCol = (int) (elapsedMillis / Constants.MINE_REVEAL_COLUMN_MILLIS);
+        int budget = Constants.MINE_REVEAL_FRAME_BUDGET;
+        while (this.next < this.mines.length && budget > 0) {
+            Cell cell = this.mines[this.next];
+            if (cell.getCol() > reachedCol) {
+                break;
+            }
+            this.board.revealMine(cell.getRow(), cell.getCol());
+            this.next++;
+            budget--;
+        }
+        this.board.publishMines();
+        if (this.isFinished()) {
+            this.stop();
+        }
+    }
+}
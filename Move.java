@@ -0,0 +1,61 @@
+package minesweeper;
+
+/**
+ * This class is a single move chosen by a solver, which is either revealing or flagging the cell at a coordinate,
+ * and also remembers whether the solver had to guess because no move was known to be safe.
+ */
+public class Move {
+    private int row;
+    private int col;
+    private boolean flag;
+    private boolean guess;
+
+    /**
+     * This method is the constructor which stores the coordinate and the kind of move.
+     */
+    public Move(int row, int col, boolean flag, boolean guess) {
+        this.row = row;
+        this.col = col;
+        this.flag = flag;
+        this.guess = guess;
+    }
+    /**
+     * This method returns a move that reveals the cell at the given coordinate.
+     */
+    public static Move reveal(int row, int col, boolean guess) {
+        return new Move(row, col, false, guess);
+    }
+    /**
+     * This method returns a move that flags the cell at the given coordinate.
+     */
+    public static Move flag(int row, int col) {
+        return new Move(row, col, true, false);
+    }
+    /**
+     * This method applies the move to a board, revealing or flagging its cell.
+     */
+    public void apply(Board board) {
+        if (this.flag) {
+            board.toggleFlag(this.row, this.col);
+        }
+        else {
+            board.reveal(this.row, this.col);
+        }
+    }
+    /**
+     * This getter method returns the row of the move.
+     */
+    public int getRow() { return this.row; }
+    /**
+     * This getter method returns the column of the move.
+     */
+    public int getCol() { return this.col; }
+    /**
+     * This getter method returns whether the move places a flag instead of revealing.
+     */
+    public boolean isFlag() { return this.flag; }
+    /**
+     * This getter method returns whether the move was a guess.
+     */
+    public boolean isGuess() { return this.guess; }
+}
@@ -43,6 +43,13 @@ public class NumberCell extends Cell {
     public int getClueValue() {
         return this.adjacentMines;
     }
+    /**
+     * This setter method changes the number of mines in its neighboring cells, so the cell can be used again in a new
+     * game where it has a different number.
+     */
+    public void setClueValue(int adjacentMines) {
+        this.adjacentMines = adjacentMines;
+    }
     /**
      * This getter method returns the number of mines in its neighboring cells in a string format to be displayed
      * if there are any.
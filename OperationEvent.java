@@ -0,0 +1,28 @@
+package minesweeper;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * This class is the Java Flight Recorder event written for every timed operation in the Metrics registry, so that a
+ * recording shows which board, hint, and drawing operations a move spent its time in.
+ */
+@Name("minesweeper.Operation")
+@Label("Minesweeper Operation")
+@Category("Minesweeper")
+@Description("A timed board, hint, or drawing operation")
+class OperationEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Time Taken")
+    @Timespan(Timespan.NANOSECONDS)
+    long timeTaken;
+
+    @Label("Cells")
+    long cells;
+}
@@ -1,17 +1,28 @@
 package minesweeper;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javafx.event.ActionEvent;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.CheckMenuItem;
 import javafx.scene.control.Label;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuBar;
 import javafx.scene.control.MenuItem;
+import javafx.scene.control.RadioMenuItem;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.control.SeparatorMenuItem;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.ToggleGroup;
+import javafx.scene.input.KeyCombination;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.FlowPane;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
@@ -28,23 +39,43 @@ public class PaneOrganizer {
     private VBox topBox;
     private HBox topPanel;
     private GridPane gridPane;
+    private Pane[][] cellPanes;
+    private Text[][] cellTexts;
+    private MSGame activeGame;
     private Label mineCounter;
     private Label timerLabel;
     private Button faceButton;
     private Label sessionBestLabel;
     private Label allTimeBestLabel;
+    private int versusRows;
+    private int versusCols;
+    private int versusMines;
+    private int versusOpponents;
     /**
      * This method is the constructor and it initializes instance variables and delegates to other methods to set up
      * the menu and modes.
      */
     public PaneOrganizer(MSGame gameManager) {
         this.root = new BorderPane();
+        this.versusRows = Constants.EASY_ROWS;
+        this.versusCols = Constants.EASY_COLS;
+        this.versusMines = Constants.EASY_MINES;
+        this.versusOpponents = 1;
         this.makeTopMenu(gameManager);
         this.setupSinglePlayer();
+        this.handleClicks(this.gridPane, Constants.CELL_SIZE, gameManager);
         this.topBox.getChildren().add(this.topPanel);
         this.root.setCenter(this.gridPane);
-        this.startSinglePlayer(gameManager, Constants.EASY_ROWS, Constants.EASY_COLS, Constants.EASY_MINES,
-                false);
+        BoardSnapshot saved = gameManager.loadSavedGame();
+        if (saved != null) {
+            MSGame resumed = this.startSinglePlayer(gameManager, saved.getRows(), saved.getCols(),
+                    saved.getNumMines(), false);
+            resumed.resume(saved);
+        }
+        else {
+            this.startSinglePlayer(gameManager, Constants.EASY_ROWS, Constants.EASY_COLS, Constants.EASY_MINES,
+                    false);
+        }
     }
 
     /**
@@ -69,7 +100,9 @@ public class PaneOrganizer {
         MenuItem mediumItem = new MenuItem("Medium (16x16)");
         MenuItem hardItem = new MenuItem("Hard (16x30)");
         MenuItem tutorialItem = new MenuItem("Tutorial (Autoplay)");
-        MenuItem versusItem = new MenuItem("Versus (Player vs AI)");
+        Menu versusMenu = this.makeVersusMenu(gameManager);
+        MenuItem undoItem = new MenuItem("Undo");
+        undoItem.setAccelerator(KeyCombination.keyCombination("Shortcut+Z"));
         MenuItem quitItem = new MenuItem("Quit");
         easyItem.setOnAction((ActionEvent e) -> {
             this.switchToSinglePlayer();
@@ -91,16 +124,78 @@ public class PaneOrganizer {
             this.startSinglePlayer(gameManager, Constants.EASY_ROWS, Constants.EASY_COLS, Constants.EASY_MINES,
                     true);
         });
-        versusItem.setOnAction((ActionEvent e) -> this.startVersus(gameManager));
-        quitItem.setOnAction((ActionEvent e) -> System.exit(0));
-        gameMenu.getItems().addAll(easyItem, mediumItem, hardItem, tutorialItem, versusItem, quitItem);
+        undoItem.setOnAction((ActionEvent e) -> gameManager.undo());
+        quitItem.setOnAction((ActionEvent e) -> {
+            gameManager.saveGame();
+            System.exit(0);
+        });
+        gameMenu.getItems().addAll(easyItem, mediumItem, hardItem, tutorialItem, versusMenu, undoItem, quitItem);
         Menu optionsMenu = new Menu("Options");
         CheckMenuItem aiHintsItem = new CheckMenuItem("Enable AI Hints");
         aiHintsItem.setOnAction((ActionEvent e) -> gameManager.enableHints(aiHintsItem.isSelected()));
-        optionsMenu.getItems().add(aiHintsItem);
+        MenuItem metricsItem = new MenuItem("Show Metrics");
+        metricsItem.setOnAction((ActionEvent e) -> this.showMetrics());
+        optionsMenu.getItems().addAll(aiHintsItem, metricsItem);
         menuBar.getMenus().addAll(gameMenu, optionsMenu);
         return menuBar;
     }
+    /**
+     * This method shows a window with the count and the 50th and 99th percentile of every metric measured so far.
+     */
+    private void showMetrics() {
+        TextArea text = new TextArea(Metrics.dump());
+        text.setEditable(false);
+        text.setStyle("-fx-font-family: 'Courier New';");
+        text.setPrefColumnCount(75);
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Metrics");
+        alert.setHeaderText("Timings are in microseconds");
+        alert.getDialogPane().setContent(text);
+        alert.show();
+    }
+    /**
+     * This method sets up the versus submenu where the board size and the number of AI opponents are chosen before
+     * starting a versus game.
+     */
+    private Menu makeVersusMenu(MSGame gameManager) {
+        Menu versusMenu = new Menu("Versus (Player vs AI)");
+        ToggleGroup sizeGroup = new ToggleGroup();
+        RadioMenuItem easySize = new RadioMenuItem("Easy board");
+        RadioMenuItem mediumSize = new RadioMenuItem("Medium board");
+        RadioMenuItem hardSize = new RadioMenuItem("Hard board");
+        easySize.setToggleGroup(sizeGroup);
+        mediumSize.setToggleGroup(sizeGroup);
+        hardSize.setToggleGroup(sizeGroup);
+        easySize.setSelected(true);
+        easySize.setOnAction((ActionEvent e) ->
+                this.setVersusSize(Constants.EASY_ROWS, Constants.EASY_COLS, Constants.EASY_MINES));
+        mediumSize.setOnAction((ActionEvent e) ->
+                this.setVersusSize(Constants.MEDIUM_ROWS, Constants.MEDIUM_COLS, Constants.MEDIUM_MINES));
+        hardSize.setOnAction((ActionEvent e) ->
+                this.setVersusSize(Constants.HARD_ROWS, Constants.HARD_COLS, Constants.HARD_MINES));
+        versusMenu.getItems().addAll(easySize, mediumSize, hardSize, new SeparatorMenuItem());
+        ToggleGroup opponentGroup = new ToggleGroup();
+        for (int opponents : Constants.VERSUS_OPPONENTS) {
+            String label = opponents == 1 ? "1 AI opponent" : opponents + " AI opponents";
+            RadioMenuItem opponentItem = new RadioMenuItem(label);
+            opponentItem.setToggleGroup(opponentGroup);
+            opponentItem.setSelected(opponents == this.versusOpponents);
+            opponentItem.setOnAction((ActionEvent e) -> this.versusOpponents = opponents);
+            versusMenu.getItems().add(opponentItem);
+        }
+        MenuItem startItem = new MenuItem("Start Versus");
+        startItem.setOnAction((ActionEvent e) -> this.startVersus(gameManager));
+        versusMenu.getItems().addAll(new SeparatorMenuItem(), startItem);
+        return versusMenu;
+    }
+    /**
+     * This method stores the board size used for the next versus game.
+     */
+    private void setVersusSize(int rows, int cols, int mines) {
+        this.versusRows = rows;
+        this.versusCols = cols;
+        this.versusMines = mines;
+    }
     /**
      * This method sets up the single player interface with the mines and timer displays, grid for the minesweeper
      * game, and displays for the best time of the session/all time.
@@ -158,133 +253,257 @@ public class PaneOrganizer {
     }
     /**
      * This method starts a single–player board or tutorial with the given size and mine count in the parameters. If
-     * isTutorial is true, it starts an autoplay tutorial.
+     * isTutorial is true, it starts an autoplay tutorial. It returns the game that was started.
      */
-    private void startSinglePlayer(MSGame gameManager,
+    private MSGame startSinglePlayer(MSGame gameManager,
                                    int rows, int cols, int mines,
                                    boolean isTutorial) {
-        this.gridPane.getChildren().clear();
-        Pane[][] cellPanes = new Pane[rows][cols];
-        Text[][] cellTexts = new Text[rows][cols];
-        this.makeCellGrid(this.gridPane, rows, cols, cellPanes, cellTexts);
+        this.resizeCellGrid(rows, cols);
         if (isTutorial) {
-            gameManager.startTutorial(rows, cols, mines, cellPanes, cellTexts,
+            this.activeGame = null;
+            return gameManager.startTutorial(rows, cols, mines, this.cellPanes, this.cellTexts,
                     this.mineCounter, this.timerLabel, this.faceButton);
         }
-        else {
-            MSGame activeGame = gameManager.startGame(rows, cols, mines, cellPanes, cellTexts,
-                    this.mineCounter, this.timerLabel, this.faceButton);
-            this.handleClicks(cellPanes, rows, cols, activeGame, gameManager);
-            this.updateBestScoreDisplay(gameManager);
+        this.activeGame = gameManager.startGame(rows, cols, mines, this.cellPanes, this.cellTexts,
+                this.mineCounter, this.timerLabel, this.faceButton);
+        this.updateBestScoreDisplay(gameManager);
+        return this.activeGame;
+    }
+    /**
+     * This method makes the single player grid the given size, keeping the cells it already has. Nothing changes
+     * when the size is the same, and otherwise cells outside the new size are removed and missing cells are added.
+     */
+    private void resizeCellGrid(int rows, int cols) {
+        if (this.cellPanes != null && this.cellPanes.length == rows && this.cellPanes[0].length == cols) {
+            return;
+        }
+        Pane[][] panes = new Pane[rows][cols];
+        Text[][] texts = new Text[rows][cols];
+        List<Pane> removed = new ArrayList<>();
+        if (this.cellPanes != null) {
+            for (int i = 0; i < this.cellPanes.length; i++) {
+                for (int j = 0; j < this.cellPanes[i].length; j++) {
+                    if (i < rows && j < cols) {
+                        panes[i][j] = this.cellPanes[i][j];
+                        texts[i][j] = this.cellTexts[i][j];
+                    }
+                    else {
+                        removed.add(this.cellPanes[i][j]);
+                    }
+                }
+            }
         }
+        this.gridPane.getChildren().removeAll(removed);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (panes[i][j] != null) {
+                    continue;
+                }
+                this.makeCell(panes, texts, i, j, Constants.CELL_SIZE);
+                this.gridPane.add(panes[i][j], j, i);
+            }
+        }
+        this.cellPanes = panes;
+        this.cellTexts = texts;
     }
 
     /**
-     * This method initiates the minesweeper game and overall UI according to the constants for dimensions for
-     * versus mode.
+     * This method initiates the minesweeper game and overall UI for versus mode using the board size and number of
+     * AI opponents chosen in the versus menu. With a single opponent both boards are shown side by side at full
+     * size, and with more opponents the AI boards are drawn smaller in a scrollable area next to the player.
      */
     private void startVersus(MSGame gameManager) {
         if (this.topBox.getChildren().size() > 1) {
             this.topBox.getChildren().remove(1, this.topBox.getChildren().size());
         }
+        int rows = this.versusRows;
+        int cols = this.versusCols;
+        int mines = this.versusMines;
+        boolean compact = this.versusOpponents > 1;
+        int aiCellSize = compact ? Constants.MINI_CELL_SIZE : Constants.CELL_SIZE;
         HBox boardsBox = new HBox(20);
         boardsBox.setPadding(new Insets(10));
         boardsBox.setAlignment(Pos.CENTER);
-        VBox playerBox = this.makeUI("You");
-        VBox aiBox = this.makeUI("AI");
-        boardsBox.getChildren().addAll(playerBox, aiBox);
-        this.root.setCenter(boardsBox);
-        int rows = Constants.EASY_ROWS;
-        int cols = Constants.EASY_COLS;
-        int mines = Constants.EASY_MINES;
+        VBox playerBox = this.makeUI("You", false);
         GridPane playerGrid = (GridPane) playerBox.getChildren().get(2);
-        GridPane aiGrid = (GridPane) aiBox.getChildren().get(2);
         Pane[][] playerPanes = new Pane[rows][cols];
         Text[][] playerTexts = new Text[rows][cols];
-        Pane[][] aiPanes = new Pane[rows][cols];
-        Text[][] aiTexts = new Text[rows][cols];
-        this.makeCellGrid(playerGrid, rows, cols, playerPanes, playerTexts);
-        this.makeCellGrid(aiGrid, rows, cols, aiPanes, aiTexts);
-        MSGame[] games = gameManager.startVersus(rows, cols, mines, playerBox, aiBox,
-                playerPanes, playerTexts, aiPanes, aiTexts);
-        if (games != null && games[0] != null) {
-            this.handleClicks(playerPanes, rows, cols, games[0], gameManager);
+        this.makeCellGrid(playerGrid, rows, cols, playerPanes, playerTexts, Constants.CELL_SIZE);
+        List<VBox> aiBoxes = new ArrayList<>();
+        List<Pane[][]> aiPanes = new ArrayList<>();
+        List<Text[][]> aiTexts = new ArrayList<>();
+        for (int k = 0; k < this.versusOpponents; k++) {
+            String title = compact ? "AI " + (k + 1) : "AI";
+            VBox aiBox = this.makeUI(title, compact);
+            GridPane aiGrid = (GridPane) aiBox.getChildren().get(2);
+            Pane[][] panes = new Pane[rows][cols];
+            Text[][] texts = new Text[rows][cols];
+            this.makeCellGrid(aiGrid, rows, cols, panes, texts, aiCellSize);
+            aiBoxes.add(aiBox);
+            aiPanes.add(panes);
+            aiTexts.add(texts);
+        }
+        if (compact) {
+            FlowPane aiBoards = new FlowPane(10, 10);
+            aiBoards.setPrefWrapLength(Constants.VERSUS_AREA_WIDTH);
+            aiBoards.getChildren().addAll(aiBoxes);
+            ScrollPane scroll = new ScrollPane(aiBoards);
+            scroll.setPrefViewportWidth(Constants.VERSUS_AREA_WIDTH);
+            scroll.setPrefViewportHeight(Constants.VERSUS_AREA_HEIGHT);
+            boardsBox.getChildren().addAll(playerBox, scroll);
+        }
+        else {
+            boardsBox.getChildren().addAll(playerBox, aiBoxes.get(0));
         }
+        this.root.setCenter(boardsBox);
+        MSGame playerGame = gameManager.startVersus(rows, cols, mines, playerBox, playerPanes, playerTexts,
+                aiBoxes, aiPanes, aiTexts);
+        this.activeGame = playerGame;
+        this.handleClicks(playerGrid, Constants.CELL_SIZE, gameManager);
     }
     /**
-     * This method initializes the gridPane of cells that the user clicks and interacts with.
+     * This method initializes the gridPane of cells that the user clicks and interacts with, scaling the text to the
+     * given cell size.
      */
     private void makeCellGrid(GridPane gridPane, int rows, int cols,
-                              Pane[][] cellPanes, Text[][] cellTexts) {
+                              Pane[][] cellPanes, Text[][] cellTexts, int cellSize) {
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
-                Pane pane = new Pane();
-                pane.setPrefSize(Constants.CELL_SIZE, Constants.CELL_SIZE);
-                pane.setMinSize(Constants.CELL_SIZE, Constants.CELL_SIZE);
-                pane.setMaxSize(Constants.CELL_SIZE, Constants.CELL_SIZE);
-                Text text = new Text("");
-                text.setFill(Color.BLACK);
-                text.setFont(Font.font("Courier New", 14));
-                text.setX(4);
-                text.setY(Constants.CELL_SIZE - 6);
-                pane.getChildren().add(text);
-                cellPanes[i][j] = pane;
-                cellTexts[i][j] = text;
-                gridPane.add(pane, j, i);
+                this.makeCell(cellPanes, cellTexts, i, j, cellSize);
+                gridPane.add(cellPanes[i][j], j, i);
             }
         }
     }
     /**
-     * This method calls for left and right clicks to be handled and is delegated to MSGame's methods when detected.
+     * This method makes the pane and text of one cell at the given coordinate, scaling the text to the given cell
+     * size, and stores them in the arrays.
      */
-    private void handleClicks(Pane[][] cellPanes, int rows, int cols,
-                              MSGame activeGame, MSGame gameManager) {
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                int row = i;
-                int col = j;
-                cellPanes[i][j].setOnMouseClicked((MouseEvent e) -> {
-                    if (e.getButton() == MouseButton.PRIMARY) {
-                        activeGame.handleLeftClick(row, col);
-                    }
-                    else if (e.getButton() == MouseButton.SECONDARY) {
-                        activeGame.handleRightClick(row, col);
-                    }
-                    if (!activeGame.isAutoplay() && activeGame.resetWin()) {
-                        gameManager.recordWin(activeGame.getTime());
-                        this.updateBestScoreDisplay(gameManager);
-                    }
-                });
+    private void makeCell(Pane[][] cellPanes, Text[][] cellTexts, int row, int col, int cellSize) {
+        double scale = (double) cellSize / Constants.CELL_SIZE;
+        Pane pane = new Pane();
+        pane.setPrefSize(cellSize, cellSize);
+        pane.setMinSize(cellSize, cellSize);
+        pane.setMaxSize(cellSize, cellSize);
+        Text text = new Text("");
+        text.setFill(Color.BLACK);
+        text.setFont(Font.font("Courier New", 14 * scale));
+        text.setX(4 * scale);
+        text.setY(cellSize - 6 * scale);
+        pane.getChildren().add(text);
+        cellPanes[row][col] = pane;
+        cellTexts[row][col] = text;
+    }
+    /**
+     * This method handles the mouse for a whole grid of cells with one handler for each kind of event, working out
+     * the cell from where the mouse is and passing it to the game shown in the grid. A left press reveals and a
+     * right press flags right away. A left press on a revealed number, a middle press, or pressing both buttons
+     * starts a chord instead, which shows the cells it would reveal while the mouse is held and dragged, and makes
+     * the chord on the cell the mouse is released over.
+     */
+    private void handleClicks(GridPane grid, int cellSize, MSGame gameManager) {
+        grid.setOnMousePressed((MouseEvent e) -> {
+            MSGame game = this.activeGame;
+            int[] cell = this.cellAt(grid, cellSize, game, e);
+            if (cell == null) {
+                return;
+            }
+            if (e.getButton() == MouseButton.MIDDLE || (e.isPrimaryButtonDown() && e.isSecondaryButtonDown())
+                    || (e.getButton() == MouseButton.PRIMARY && game.canChord(cell[0], cell[1]))) {
+                game.showChordPreview(cell[0], cell[1]);
+                return;
+            }
+            if (e.getButton() == MouseButton.PRIMARY) {
+                game.handleLeftClick(cell[0], cell[1]);
+            }
+            else if (e.getButton() == MouseButton.SECONDARY) {
+                game.handleRightClick(cell[0], cell[1]);
+            }
+            this.checkForWin(game, gameManager);
+        });
+        grid.setOnMouseDragged((MouseEvent e) -> {
+            MSGame game = this.activeGame;
+            if (game == null || !game.isChordPreviewShown()) {
+                return;
+            }
+            int[] cell = this.cellAt(grid, cellSize, game, e);
+            if (cell == null) {
+                game.clearChordPreview();
+            }
+            else {
+                game.showChordPreview(cell[0], cell[1]);
+            }
+        });
+        grid.setOnMouseReleased((MouseEvent e) -> {
+            MSGame game = this.activeGame;
+            if (game == null || !game.isChordPreviewShown()) {
+                return;
+            }
+            game.clearChordPreview();
+            int[] cell = this.cellAt(grid, cellSize, game, e);
+            if (cell != null) {
+                game.handleChord(cell[0], cell[1]);
+                this.checkForWin(game, gameManager);
             }
+        });
+    }
+    /**
+     * This method returns the row and column of the cell under the mouse in a grid of cells of the given size, or
+     * null if the mouse is not over a cell or no game that takes clicks is shown.
+     */
+    private int[] cellAt(GridPane grid, int cellSize, MSGame game, MouseEvent e) {
+        if (game == null) {
+            return null;
+        }
+        double x = e.getX() - grid.getInsets().getLeft();
+        double y = e.getY() - grid.getInsets().getTop();
+        if (x < 0 || y < 0) {
+            return null;
         }
+        int row = (int) (y / cellSize);
+        int col = (int) (x / cellSize);
+        if (row >= game.getRows() || col >= game.getCols()) {
+            return null;
+        }
+        return new int[]{row, col};
     }
     /**
-     * This method initializes the overall UI such as the labels, buttons, and grid.
+     * This method records the time if the last move won the game.
      */
-    private VBox makeUI(String title) {
+    private void checkForWin(MSGame game, MSGame gameManager) {
+        if (!game.isAutoplay() && game.resetWin()) {
+            gameManager.recordWin(game.getTime());
+            this.updateBestScoreDisplay(gameManager);
+        }
+    }
+    /**
+     * This method initializes the overall UI such as the labels, buttons, and grid, using smaller fonts and spacing
+     * when compact is true.
+     */
+    private VBox makeUI(String title, boolean compact) {
+        int fontSize = compact ? 12 : 24;
         VBox box = new VBox(5);
         box.setAlignment(Pos.TOP_CENTER);
         Label titleLabel = new Label(title);
-        titleLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
-        HBox top = new HBox(20);
+        titleLabel.setStyle("-fx-font-size: " + (compact ? 11 : 16) + "px; -fx-font-weight: bold;");
+        HBox top = new HBox(compact ? 8 : 20);
         top.setAlignment(Pos.CENTER);
-        top.setStyle("-fx-background-color: #C0C0C0; -fx-padding: 10;");
+        top.setStyle("-fx-background-color: #C0C0C0; -fx-padding: " + (compact ? 3 : 10) + ";");
         Label counter = new Label("000");
         counter.setStyle(
                 "-fx-background-color: black; -fx-text-fill: red; " +
-                        "-fx-font-family: 'Courier New'; -fx-font-size: 24px; " +
-                        "-fx-padding: 5; -fx-font-weight: bold;");
+                        "-fx-font-family: 'Courier New'; -fx-font-size: " + fontSize + "px; " +
+                        "-fx-padding: " + (compact ? 2 : 5) + "; -fx-font-weight: bold;");
         Button face = new Button("🙂");
-        face.setStyle("-fx-font-size: 24px;");
+        face.setStyle("-fx-font-size: " + fontSize + "px;");
         face.setFocusTraversable(false);
         Label timer = new Label("000");
         timer.setStyle(
                 "-fx-background-color: black; -fx-text-fill: red; " +
-                        "-fx-font-family: 'Courier New'; -fx-font-size: 24px; " +
-                        "-fx-padding: 5; -fx-font-weight: bold;");
+                        "-fx-font-family: 'Courier New'; -fx-font-size: " + fontSize + "px; " +
+                        "-fx-padding: " + (compact ? 2 : 5) + "; -fx-font-weight: bold;");
         top.getChildren().addAll(counter, face, timer);
         GridPane grid = new GridPane();
-        grid.setStyle("-fx-background-color: #C0C0C0; -fx-padding: 5;");
+        grid.setStyle("-fx-background-color: #C0C0C0; -fx-padding: " + (compact ? 2 : 5) + ";");
         box.getChildren().addAll(titleLabel, top, grid);
         return box;
     }
@@ -300,21 +519,21 @@ public class PaneOrganizer {
         this.root.setCenter(this.gridPane);
     }
     /**
-     * This method updates the display text that shows the best score of the session or all time, styling it so that
-     * it fits into the 3 digit box and filled in with dashes if no score is registered yet.
+     * This method updates the display text that shows the best score of the session or all time in seconds to the
+     * millisecond, filled in with dashes if no score is registered yet.
      */
     public void updateBestScoreDisplay(MSGame gameManager) {
-        int sessionBest = gameManager.getSessionBestTime();
-        int allTimeBest = gameManager.getAllTimeBestTime();
-        if (sessionBest < 999) {
-            this.sessionBestLabel.setText(String.format("%03d", sessionBest));
+        long sessionBest = gameManager.getSessionBestTime();
+        long allTimeBest = gameManager.getAllTimeBestTime();
+        if (sessionBest != Constants.NO_BEST_TIME) {
+            this.sessionBestLabel.setText(GameClock.format(sessionBest));
         }
         else {
             this.sessionBestLabel.setText("---");
         }
 
-        if (allTimeBest < 999) {
-            this.allTimeBestLabel.setText(String.format("%03d", allTimeBest));
+        if (allTimeBest != Constants.NO_BEST_TIME) {
+            this.allTimeBestLabel.setText(GameClock.format(allTimeBest));
         }
         else {
             this.allTimeBestLabel.setText("---");
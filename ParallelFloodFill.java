@@ -0,0 +1,252 @@
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * This class works out which cells a click on an empty cell reveals on a very large board, splitting the board into
+ * square tiles and filling each tile on the fork join pool. Each tile fills the part of the region inside it with
+ * scanlines, and cells it reaches in other tiles are handed to those tiles in the next round, until a round reaches
+ * nothing new. Every tile is only ever filled by one task at a time and a tile is a whole number of 64 cell words
+ * wide, so each task writes only its own words of the result and no locking is needed. The revealed cells are the
+ * same as the ones the queue in EmptyCell reveals, since which cells a flood fill reaches does not depend on order.
+ */
+public class ParallelFloodFill {
+    private static final int TILE = Constants.FILL_TILE_SIZE;
+    private int rows;
+    private int cols;
+    private byte[] clues;
+    private long[] blocked;
+    private int tileCols;
+    private int wordsPerRow;
+    private long[] revealed;
+    private boolean[] touched;
+    private int revealedCount;
+
+    /**
+     * This method is the constructor which takes the number of mines around every cell in row major order and the
+     * cells a fill cannot reveal or pass through, which are the flagged and already revealed cells, as a bitset of
+     * row major indices.
+     */
+    public ParallelFloodFill(int rows, int cols, byte[] clues, long[] blocked) {
+        this.rows = rows;
+        this.cols = cols;
+        this.clues = clues;
+        this.blocked = blocked;
+        this.tileCols = (cols + TILE - 1) / TILE;
+        this.wordsPerRow = (cols + 63) >>> 6;
+    }
+    /**
+     * This method fills outwards from the given cell, which must not be a mine, and returns how many cells were
+     * revealed. Afterwards isRevealed tells which ones they were.
+     */
+    public int fill(int startRow, int startCol) {
+        this.revealed = new long[this.rows * this.wordsPerRow];
+        this.revealedCount = 0;
+        int tileCount = this.tileCols * ((this.rows + TILE - 1) / TILE);
+        this.touched = new boolean[tileCount];
+        int[][] inboxes = new int[tileCount][];
+        int[] inboxSizes = new int[tileCount];
+        List<Integer> active = new ArrayList<>();
+        int start = startRow * this.cols + startCol;
+        this.post(inboxes, inboxSizes, active, this.tileOf(start), start);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        while (!active.isEmpty()) {
+            List<Callable<int[]>> tasks = new ArrayList<>();
+            for (int tile : active) {
+                int[] seeds = Arrays.copyOf(inboxes[tile], inboxSizes[tile]);
+                inboxSizes[tile] = 0;
+                tasks.add(() -> this.fillTile(tile, seeds));
+            }
+            active.clear();
+            List<Future<int[]>> results = pool.invokeAll(tasks);
+            for (Future<int[]> result : results) {
+                int[] outbox;
+                try {
+                    outbox = result.get();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Flood fill was interrupted", e);
+                }
+                catch (ExecutionException e) {
+                    throw new IllegalStateException("Flood fill failed", e.getCause());
+                }
+                this.revealedCount += outbox[0];
+                for (int k = 1; k < outbox.length; k++) {
+                    this.post(inboxes, inboxSizes, active, this.tileOf(outbox[k]), outbox[k]);
+                }
+            }
+        }
+        return this.revealedCount;
+    }
+    /**
+     * This method adds a cell to the inbox of a tile, marking the tile as having work in the next round.
+     */
+    private void post(int[][] inboxes, int[] inboxSizes, List<Integer> active, int tile, int cell) {
+        this.touched[tile] = true;
+        if (inboxSizes[tile] == 0) {
+            active.add(tile);
+            if (inboxes[tile] == null) {
+                inboxes[tile] = new int[16];
+            }
+        }
+        if (inboxSizes[tile] == inboxes[tile].length) {
+            inboxes[tile] = Arrays.copyOf(inboxes[tile], inboxSizes[tile] * 2);
+        }
+        inboxes[tile][inboxSizes[tile]] = cell;
+        inboxSizes[tile]++;
+    }
+    /**
+     * This method returns the tile holding the cell with the given row major index.
+     */
+    private int tileOf(int cell) {
+        return (cell / this.cols / TILE) * this.tileCols + (cell % this.cols) / TILE;
+    }
+    /**
+     * This method fills the part of the region inside one tile from the given cells. A seed that is empty is widened
+     * into the longest run of empty cells in its row within the tile, the run and the cells on both sides of it are
+     * revealed, and the rows above and below are scanned, revealing numbered cells and starting a new run at each
+     * empty cell. Cells outside the tile are returned for their own tiles. The first entry of the returned array is
+     * how many cells were revealed.
+     */
+    private int[] fillTile(int tile, int[] seeds) {
+        int top = (tile / this.tileCols) * TILE;
+        int left = (tile % this.tileCols) * TILE;
+        int bottom = Math.min(this.rows, top + TILE) - 1;
+        int right = Math.min(this.cols, left + TILE) - 1;
+        int[] stack = Arrays.copyOf(seeds, Math.max(16, seeds.length));
+        int size = seeds.length;
+        int[] outbox = new int[16];
+        int outSize = 1;
+        int count = 0;
+        while (size > 0) {
+            size--;
+            int row = stack[size] / this.cols;
+            int col = stack[size] % this.cols;
+            if (!this.isOpen(row, col)) {
+                continue;
+            }
+            if (this.clues[row * this.cols + col] != 0) {
+                this.setRevealed(row, col);
+                count++;
+                continue;
+            }
+            int runLeft = col;
+            while (runLeft > left && this.isOpen(row, runLeft - 1) && this.clues[row * this.cols + runLeft - 1] == 0) {
+                runLeft--;
+            }
+            int runRight = col;
+            while (runRight < right && this.isOpen(row, runRight + 1)
+                    && this.clues[row * this.cols + runRight + 1] == 0) {
+                runRight++;
+            }
+            for (int c = runLeft; c <= runRight; c++) {
+                this.setRevealed(row, c);
+                count++;
+            }
+            int scanLeft = Math.max(0, runLeft - 1);
+            int scanRight = Math.min(this.cols - 1, runRight + 1);
+            for (int r = row - 1; r <= row + 1; r++) {
+                if (r < 0 || r >= this.rows) {
+                    continue;
+                }
+                boolean inRun = false;
+                for (int c = scanLeft; c <= scanRight; c++) {
+                    if (r == row && c >= runLeft && c <= runRight) {
+                        continue;
+                    }
+                    int cell = r * this.cols + c;
+                    if (r < top || r > bottom || c < left || c > right) {
+                        if (outSize == outbox.length) {
+                            outbox = Arrays.copyOf(outbox, outSize * 2);
+                        }
+                        outbox[outSize] = cell;
+                        outSize++;
+                        inRun = false;
+                        continue;
+                    }
+                    if (!this.isOpen(r, c)) {
+                        inRun = false;
+                        continue;
+                    }
+                    if (this.clues[cell] != 0) {
+                        this.setRevealed(r, c);
+                        count++;
+                        inRun = false;
+                        continue;
+                    }
+                    if (!inRun) {
+                        if (size == stack.length) {
+                            stack = Arrays.copyOf(stack, size * 2);
+                        }
+                        stack[size] = cell;
+                        size++;
+                        inRun = true;
+                    }
+                }
+            }
+        }
+        outbox[0] = count;
+        return Arrays.copyOf(outbox, outSize);
+    }
+    /**
+     * This method returns whether the cell at the given coordinate can still be revealed, meaning it is not flagged,
+     * was not revealed before the fill, and was not revealed by this fill.
+     */
+    private boolean isOpen(int row, int col) {
+        int index = row * this.cols + col;
+        if ((this.blocked[index >>> 6] & (1L << index)) != 0) {
+            return false;
+        }
+        return !this.isRevealed(row, col);
+    }
+    /**
+     * This method marks the cell at the given coordinate as revealed by this fill.
+     */
+    private void setRevealed(int row, int col) {
+        this.revealed[row * this.wordsPerRow + (col >>> 6)] |= 1L << col;
+    }
+    /**
+     * This method returns whether the last fill revealed the cell at the given coordinate.
+     */
+    public boolean isRevealed(int row, int col) {
+        return (this.revealed[row * this.wordsPerRow + (col >>> 6)] & (1L << col)) != 0;
+    }
+    /**
+     * This method gives the row major index of every cell the last fill revealed to the action, reading only the
+     * words of the tiles the fill reached, so the work is in proportion to the region and not to the board.
+     */
+    public void forEachRevealed(IntConsumer action) {
+        for (int tile = 0; tile < this.touched.length; tile++) {
+            if (!this.touched[tile]) {
+                continue;
+            }
+            int top = (tile / this.tileCols) * TILE;
+            int bottom = Math.min(this.rows, top + TILE);
+            int firstWord = (tile % this.tileCols) * TILE >>> 6;
+            int lastWord = Math.min(this.wordsPerRow, firstWord + TILE / 64);
+            for (int row = top; row < bottom; row++) {
+                for (int word = firstWord; word < lastWord; word++) {
+                    long bits = this.revealed[row * this.wordsPerRow + word];
+                    while (bits != 0) {
+                        action.accept(row * this.cols + (word << 6) + Long.numberOfTrailingZeros(bits));
+                        bits &= bits - 1;
+                    }
+                }
+            }
+        }
+    }
+    /**
+     * This getter method returns how many cells the last fill revealed.
+     */
+    public int getRevealedCount() {
+        return this.revealedCount;
+    }
+}
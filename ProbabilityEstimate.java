@@ -0,0 +1,44 @@
+package minesweeper;
+
+/**
+ * This class stores the mine probability of every hidden cell estimated by the MineProbabilitySampler, along with
+ * the half width of a 95% confidence interval for each estimate and how many samples it was based on.
+ */
+public class ProbabilityEstimate {
+    private double[][] probability;
+    private double[][] halfWidth;
+    private long samples;
+
+    /**
+     * This method is the constructor which stores the estimates, using NaN for cells that are not hidden.
+     */
+    public ProbabilityEstimate(double[][] probability, double[][] halfWidth, long samples) {
+        this.probability = probability;
+        this.halfWidth = halfWidth;
+        this.samples = samples;
+    }
+    /**
+     * This getter method returns the estimated chance that the cell at the given coordinate is a mine.
+     */
+    public double getProbability(int row, int col) {
+        return this.probability[row][col];
+    }
+    /**
+     * This getter method returns the half width of the 95% confidence interval of the cell's estimate.
+     */
+    public double getHalfWidth(int row, int col) {
+        return this.halfWidth[row][col];
+    }
+    /**
+     * This getter method returns the whole grid of estimated probabilities.
+     */
+    public double[][] getProbabilities() {
+        return this.probability;
+    }
+    /**
+     * This getter method returns how many mine layouts were sampled.
+     */
+    public long getSamples() {
+        return this.samples;
+    }
+}
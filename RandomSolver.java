@@ -0,0 +1,48 @@
+package minesweeper;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This class is a solver that reveals a random hidden cell every move and is used as the lowest baseline when
+ * comparing solvers.
+ */
+public class RandomSolver implements Solver {
+    /**
+     * This getter method returns the name of this strategy.
+     */
+    @Override
+    public String getName() {
+        return "Random";
+    }
+    /**
+     * This method picks one of the hidden unflagged cells at random and reveals it.
+     */
+    @Override
+    public Move chooseMove(Board board) {
+        int hidden = 0;
+        for (int i = 0; i < board.getRows(); i++) {
+            for (int j = 0; j < board.getCols(); j++) {
+                Cell cell = board.getCell(i, j);
+                if (!cell.isRevealed() && !cell.isFlagged()) {
+                    hidden++;
+                }
+            }
+        }
+        if (hidden == 0) {
+            return null;
+        }
+        int pick = ThreadLocalRandom.current().nextInt(hidden);
+        for (int i = 0; i < board.getRows(); i++) {
+            for (int j = 0; j < board.getCols(); j++) {
+                Cell cell = board.getCell(i, j);
+                if (!cell.isRevealed() && !cell.isFlagged()) {
+                    if (pick == 0) {
+                        return Move.reveal(i, j, true);
+                    }
+                    pick--;
+                }
+            }
+        }
+        return null;
+    }
+}
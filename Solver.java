@@ -0,0 +1,16 @@
+package minesweeper;
+
+/**
+ * This interface defines a strategy that decides the next move in a game, so that different AIs can play the same
+ * games and be compared. Implementations must be safe to use from several threads at once.
+ */
+public interface Solver {
+    /**
+     * This method returns the name of the strategy that is shown in reports.
+     */
+    String getName();
+    /**
+     * This method returns the next move to make on the board, or null if there is no hidden cell left to play.
+     */
+    Move chooseMove(Board board);
+}
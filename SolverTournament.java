@@ -0,0 +1,199 @@
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class is a command line harness that plays every solver strategy on the same set of seeded boards in
+ * parallel and prints how they compare, including win rate, decision time, and guesses per game with 95%
+ * confidence intervals. Run it with the number of games and the difficulty, for example "1000 hard".
+ */
+public class SolverTournament {
+    private static final double Z_95 = 1.96;
+    private List<Solver> solvers;
+    private int rows;
+    private int cols;
+    private int mines;
+    private int games;
+
+    /**
+     * This method is the constructor which stores the strategies and the size and number of the boards to play.
+     */
+    public SolverTournament(List<Solver> solvers, int rows, int cols, int mines, int games) {
+        this.solvers = solvers;
+        this.rows = rows;
+        this.cols = cols;
+        this.mines = mines;
+        this.games = games;
+    }
+    /**
+     * This method starts the tournament from the command line with the strategies that are currently available.
+     */
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        String difficulty = args.length > 1 ? args[1] : "hard";
+        int rows = Constants.HARD_ROWS;
+        int cols = Constants.HARD_COLS;
+        int mines = Constants.HARD_MINES;
+        if (difficulty.equals("easy")) {
+            rows = Constants.EASY_ROWS;
+            cols = Constants.EASY_COLS;
+            mines = Constants.EASY_MINES;
+        }
+        else if (difficulty.equals("medium")) {
+            rows = Constants.MEDIUM_ROWS;
+            cols = Constants.MEDIUM_COLS;
+            mines = Constants.MEDIUM_MINES;
+        }
+        List<Solver> solvers = new ArrayList<>();
+        solvers.add(new HintAI());
+        solvers.add(new HintAI(new MineProbabilitySampler(1, 1), 5));
+        solvers.add(new RandomSolver());
+        SolverTournament tournament = new SolverTournament(solvers, rows, cols, mines, games);
+        tournament.run();
+    }
+    /**
+     * This method plays every game for every strategy on a pool with one thread per processor and prints a report
+     * line for each strategy.
+     */
+    public void run() throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<List<Future<GameResult>>> futures = new ArrayList<>();
+            for (Solver solver : this.solvers) {
+                List<Future<GameResult>> solverFutures = new ArrayList<>();
+                for (int seed = 0; seed < this.games; seed++) {
+                    long boardSeed = seed;
+                    solverFutures.add(pool.submit(() -> this.play(solver, boardSeed)));
+                }
+                futures.add(solverFutures);
+            }
+            System.out.printf("%d games on %dx%d with %d mines%n", this.games, this.rows, this.cols, this.mines);
+            System.out.printf("%-14s %-22s %-14s %-14s %-20s%n",
+                    "Solver", "Win rate (95% CI)", "Avg decision", "p99 decision", "Guesses/game (95% CI)");
+            for (int k = 0; k < this.solvers.size(); k++) {
+                List<GameResult> results = new ArrayList<>();
+                for (Future<GameResult> future : futures.get(k)) {
+                    results.add(future.get());
+                }
+                this.report(this.solvers.get(k).getName(), results);
+            }
+            System.out.println();
+            System.out.print(Metrics.dump());
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+    /**
+     * This method plays one game with a strategy on the board made from the given seed. The first click is always
+     * the center so every strategy gets exactly the same board, and every later decision is timed.
+     */
+    public GameResult play(Solver solver, long seed) {
+        Board board = new Board(this.rows, this.cols, this.mines, null, seed);
+        board.reveal(this.rows / 2, this.cols / 2);
+        int limit = this.rows * this.cols * 2;
+        long[] latencies = new long[limit];
+        int decisions = 0;
+        int guesses = 0;
+        while (!board.isGameOver() && decisions < limit) {
+            long start = System.nanoTime();
+            Move move = solver.chooseMove(board);
+            latencies[decisions] = System.nanoTime() - start;
+            decisions++;
+            if (move == null) {
+                break;
+            }
+            if (move.isGuess()) {
+                guesses++;
+            }
+            move.apply(board);
+        }
+        return new GameResult(board.isWon(), guesses, Arrays.copyOf(latencies, decisions));
+    }
+    /**
+     * This method prints the win rate with a Wilson score interval, the average and 99th percentile decision time,
+     * and the mean number of guesses per game with a normal interval.
+     */
+    private void report(String name, List<GameResult> results) {
+        int n = results.size();
+        int wins = 0;
+        long totalDecisions = 0;
+        long totalNanos = 0;
+        double guessSum = 0;
+        double guessSquares = 0;
+        for (GameResult result : results) {
+            if (result.isWon()) {
+                wins++;
+            }
+            totalDecisions += result.getLatencies().length;
+            for (long latency : result.getLatencies()) {
+                totalNanos += latency;
+            }
+            guessSum += result.getGuesses();
+            guessSquares += (double) result.getGuesses() * result.getGuesses();
+        }
+        long[] all = new long[(int) totalDecisions];
+        int filled = 0;
+        for (GameResult result : results) {
+            System.arraycopy(result.getLatencies(), 0, all, filled, result.getLatencies().length);
+            filled += result.getLatencies().length;
+        }
+        Arrays.sort(all);
+        long p99 = all.length == 0 ? 0 : all[Math.min(all.length - 1, (int) Math.ceil(all.length * 0.99) - 1)];
+        double winRate = (double) wins / n;
+        double[] winInterval = wilson(wins, n);
+        double guessMean = guessSum / n;
+        double guessVariance = n > 1 ? (guessSquares - n * guessMean * guessMean) / (n - 1) : 0;
+        double guessHalfWidth = Z_95 * Math.sqrt(Math.max(0, guessVariance) / n);
+        double avgMicros = totalDecisions == 0 ? 0 : totalNanos / 1000.0 / totalDecisions;
+        System.out.printf("%-14s %5.1f%% [%4.1f, %4.1f]     %8.1f us    %8.1f us    %6.2f +/- %.2f%n",
+                name, winRate * 100, winInterval[0] * 100, winInterval[1] * 100,
+                avgMicros, p99 / 1000.0, guessMean, guessHalfWidth);
+    }
+    /**
+     * This method returns the lower and upper bounds of the 95% Wilson score interval for a proportion.
+     */
+    private static double[] wilson(int successes, int n) {
+        if (n == 0) {
+            return new double[]{0, 0};
+        }
+        double p = (double) successes / n;
+        double z2 = Z_95 * Z_95;
+        double center = (p + z2 / (2 * n)) / (1 + z2 / n);
+        double half = Z_95 * Math.sqrt(p * (1 - p) / n + z2 / (4.0 * n * n)) / (1 + z2 / n);
+        return new double[]{Math.max(0, center - half), Math.min(1, center + half)};
+    }
+
+    /**
+     * This class stores the outcome of one tournament game.
+     */
+    public static class GameResult {
+        private boolean won;
+        private int guesses;
+        private long[] latencies;
+
+        public GameResult(boolean won, int guesses, long[] latencies) {
+            this.won = won;
+            this.guesses = guesses;
+            this.latencies = latencies;
+        }
+        /**
+         * This getter method returns whether the game was won.
+         */
+        public boolean isWon() { return this.won; }
+        /**
+         * This getter method returns how many moves were guesses.
+         */
+        public int getGuesses() { return this.guesses; }
+        /**
+         * This getter method returns how long each decision took in nanoseconds.
+         */
+        public long[] getLatencies() { return this.latencies; }
+    }
+}
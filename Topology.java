@@ -0,0 +1,176 @@
+package minesweeper;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class holds which cells are neighbors on a board of one shape, worked out once instead of with bounds checks
+ * every time they are needed. The neighbors are stored in compressed sparse rows: the neighbors of every cell, by
+ * row major index, come one after another in a single array, and a second array holds where each cell's neighbors
+ * start, so walking the neighbors of a cell is a plain loop over part of an array. Topologies are immutable, so the
+ * boards of the same kind and size share one, and the most recently used ones are kept for the next board. Only
+ * shapes of up to TOPOLOGY_CACHE_MAX_CELLS cells are kept, so the cache stays small however many large boards are
+ * made, and the topology of a larger board goes away with it.
+ */
+public class Topology {
+    private static final LinkedHashMap<String, Topology> SHAPES = new LinkedHashMap<>(16, 0.75f, true);
+    private static final int[][] SQUARE_STEPS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+    private static final int[][] EVEN_HEX_STEPS = {{-1, -1}, {-1, 0}, {0, -1}, {0, 1}, {1, -1}, {1, 0}};
+    private static final int[][] ODD_HEX_STEPS = {{-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, 0}, {1, 1}};
+    private static final int[][] KNIGHT_STEPS = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1},
+            {2, 1}};
+    private TopologyKind kind;
+    private int rows;
+    private int cols;
+    private int[] offsets;
+    private int[] neighbors;
+
+    /**
+     * This method is the constructor which works out the neighbors of every cell of a board of the given kind and
+     * size. The neighbors of a cell are listed in row major order of the steps taken to reach them, which for SQUARE
+     * is the same order as looping over the rows and then the columns around the cell.
+     */
+    public Topology(TopologyKind kind, int rows, int cols) {
+        this.kind = kind;
+        this.rows = rows;
+        this.cols = cols;
+        int size = rows * cols;
+        this.offsets = new int[size + 1];
+        int[] around = new int[8];
+        // the neighbors are counted first so the neighbor array is made at its exact size
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                int cell = i * cols + j;
+                this.offsets[cell + 1] = this.offsets[cell] + this.neighborsOf(i, j, around);
+            }
+        }
+        this.neighbors = new int[this.offsets[size]];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                int cell = i * cols + j;
+                int count = this.neighborsOf(i, j, around);
+                System.arraycopy(around, 0, this.neighbors, this.offsets[cell], count);
+            }
+        }
+    }
+    /**
+     * This method returns the topology for boards of the given kind and size, working it out only if no board of that
+     * shape was made recently.
+     */
+    public static Topology of(TopologyKind kind, int rows, int cols) {
+        if ((long) rows * cols > Constants.TOPOLOGY_CACHE_MAX_CELLS) {
+            return new Topology(kind, rows, cols);
+        }
+        String key = kind + " " + rows + "x" + cols;
+        synchronized (SHAPES) {
+            Topology topology = SHAPES.get(key);
+            if (topology == null) {
+                topology = new Topology(kind, rows, cols);
+                SHAPES.put(key, topology);
+                Iterator<Map.Entry<String, Topology>> it = SHAPES.entrySet().iterator();
+                while (SHAPES.size() > Constants.TOPOLOGY_CACHE_SIZE && it.hasNext()) {
+                    it.next();
+                    it.remove();
+                }
+            }
+            return topology;
+        }
+    }
+    /**
+     * This method puts the row major indexes of the neighbors of the cell at the given coordinate into the given
+     * array and returns how many there are.
+     */
+    private int neighborsOf(int row, int col, int[] around) {
+        int cell = row * this.cols + col;
+        int count = 0;
+        for (int[] step : this.stepsFor(row)) {
+            int neighbor = this.stepTo(row + step[0], col + step[1]);
+            // a small torus can reach the same cell, or the cell itself, by more than one step
+            if (neighbor >= 0 && neighbor != cell && !contains(around, 0, count, neighbor)) {
+                around[count] = neighbor;
+                count++;
+            }
+        }
+        return count;
+    }
+    /**
+     * This method returns the steps to the neighbors of a cell in the given row.
+     */
+    private int[][] stepsFor(int row) {
+        if (this.kind == TopologyKind.HEX) {
+            return row % 2 == 0 ? EVEN_HEX_STEPS : ODD_HEX_STEPS;
+        }
+        else if (this.kind == TopologyKind.KNIGHT) {
+            return KNIGHT_STEPS;
+        }
+        return SQUARE_STEPS;
+    }
+    /**
+     * This method returns the row major index of the cell a step lands on, wrapping around the edges of a torus, or
+     * -1 if the step leaves the board.
+     */
+    private int stepTo(int row, int col) {
+        if (this.kind == TopologyKind.TORUS) {
+            row = Math.floorMod(row, this.rows);
+            col = Math.floorMod(col, this.cols);
+        }
+        if (row < 0 || row >= this.rows || col < 0 || col >= this.cols) {
+            return -1;
+        }
+        return row * this.cols + col;
+    }
+    /**
+     * This method returns whether the value is in the array between the two positions.
+     */
+    private static boolean contains(int[] values, int from, int to, int value) {
+        for (int k = from; k < to; k++) {
+            if (values[k] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+    /**
+     * This method returns where the neighbors of the cell with the given row major index start in the neighbor array.
+     */
+    public int getStart(int cell) {
+        return this.offsets[cell];
+    }
+    /**
+     * This method returns where the neighbors of the cell with the given row major index end in the neighbor array.
+     */
+    public int getEnd(int cell) {
+        return this.offsets[cell + 1];
+    }
+    /**
+     * This method returns the row major index of the neighbor at the given position in the neighbor array.
+     */
+    public int getNeighbor(int position) {
+        return this.neighbors[position];
+    }
+    /**
+     * This method returns whether the two cells with the given row major indexes are neighbors.
+     */
+    public boolean isNeighbor(int cell, int other) {
+        return contains(this.neighbors, this.offsets[cell], this.offsets[cell + 1], other);
+    }
+    /**
+     * This getter method returns the kind of the topology.
+     */
+    public TopologyKind getKind() {
+        return this.kind;
+    }
+    /**
+     * This getter method returns the number of rows.
+     */
+    public int getRows() {
+        return this.rows;
+    }
+    /**
+     * This getter method returns the number of columns.
+     */
+    public int getCols() {
+        return this.cols;
+    }
+}
@@ -0,0 +1,11 @@
+package minesweeper;
+
+/**
+ * This enum lists the ways the cells of a board can be neighbors. SQUARE is the usual rule where a cell touches the
+ * eight cells around it inside the edges, and TORUS is the same rule with the edges wrapping around to the other
+ * side. HEX lays the rows out as hexagons with every other row shifted half a cell to the right, so a cell touches
+ * six others, and KNIGHT makes a cell touch the cells a chess knight could jump to from it.
+ */
+public enum TopologyKind {
+    SQUARE, TORUS, HEX, KNIGHT
+}
@@ -0,0 +1,324 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class is a command line tool that plays seeded games with HintAI on every processor and writes every decision
+ * it makes as training data for a learned guesser. Run it with the number of games, the folder to write to and the
+ * difficulty, for example "100000 data hard".
+ *
+ * Every thread writes its own shard files named "shard-T-N.msd", starting a new one once a shard passes
+ * EXPORT_SHARD_BYTES, so no thread waits for another and the memory used stays the same however many games are
+ * played. A shard is a series of blocks that can be read one at a time. A block starts with four little endian ints,
+ * the magic number 0x4D535444, the format version, the number of records R and the window width W, followed by one
+ * column after another, all little endian:
+ *   game     R int32    seed of the game
+ *   move     R int16    number of the decision in its game
+ *   row      R int16    row of the cell the move was played on
+ *   col      R int16    column of the cell the move was played on
+ *   action   R int8     0 for a safe reveal, 1 for a flag, 2 for a guess
+ *   won      R int8     1 if the game was won
+ *   visible  R*W*W     the W by W window around the cell as the player sees it, with the views of BoardStream and
+ *                      OFF for cells past the edge
+ *   mines    R*ceil(W*W/8)  whether each window cell is a mine, one bit per cell starting at the lowest bit
+ *   risk     R*W*W float32  the risk HintAI gave each window cell, NaN for cells that are not hidden
+ */
+public class TrainingDataExporter {
+    public static final int MAGIC = 0x4D535444;
+    public static final int FILE_VERSION = 1;
+    public static final byte OFF = 12;
+    public static final byte ACTION_REVEAL = 0;
+    public static final byte ACTION_FLAG = 1;
+    public static final byte ACTION_GUESS = 2;
+    private int rows;
+    private int cols;
+    private int mines;
+    private int games;
+    private Path folder;
+    private int threads;
+
+    /**
+     * This class is the shard writer of one thread. The records of a block are kept column by column in direct
+     * buffers of a fixed size and written with one gathering write when the block is full, so a record never costs
+     * a system call of its own.
+     */
+    private static class ShardWriter {
+        private Path folder;
+        private int thread;
+        private int shard;
+        private FileChannel channel;
+        private long shardBytes;
+        private int window;
+        private int count;
+        private ByteBuffer header;
+        private ByteBuffer[] columns;
+        private long records;
+        private long bytes;
+
+        private ShardWriter(Path folder, int thread, int window) {
+            this.folder = folder;
+            this.thread = thread;
+            this.shard = 0;
+            this.channel = null;
+            this.window = window;
+            this.count = 0;
+            int capacity = Constants.EXPORT_BATCH_RECORDS;
+            int cells = window * window;
+            this.header = direct(16);
+            // the same order as the columns of a block
+            this.columns = new ByteBuffer[]{direct(capacity * 4), direct(capacity * 2), direct(capacity * 2),
+                    direct(capacity * 2), direct(capacity), direct(capacity), direct(capacity * cells),
+                    direct(capacity * ((cells + 7) / 8)), direct(capacity * cells * 4)};
+            this.records = 0;
+            this.bytes = 0;
+        }
+        /**
+         * This method returns a little endian direct buffer of the given size.
+         */
+        private static ByteBuffer direct(int size) {
+            return ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        /**
+         * This method returns how many more records fit before the block has to be written.
+         */
+        private int room() {
+            return Constants.EXPORT_BATCH_RECORDS - this.count;
+        }
+        /**
+         * This method adds one decision to the block, reading the window around the cell of the move from the
+         * board and the risk map.
+         */
+        private void add(Board board, double[][] risk, long seed, int move, Move played) {
+            int half = this.window / 2;
+            this.columns[0].putInt((int) seed);
+            this.columns[1].putShort((short) move);
+            this.columns[2].putShort((short) played.getRow());
+            this.columns[3].putShort((short) played.getCol());
+            byte action = played.isGuess() ? ACTION_GUESS : played.isFlag() ? ACTION_FLAG : ACTION_REVEAL;
+            this.columns[4].put(action);
+            this.columns[5].put((byte) 0);
+            int bits = 0;
+            int bitCount = 0;
+            for (int i = played.getRow() - half; i <= played.getRow() + half; i++) {
+                for (int j = played.getCol() - half; j <= played.getCol() + half; j++) {
+                    Cell cell = board.getCell(i, j);
+                    this.columns[6].put(viewOf(cell));
+                    if (cell != null && cell.isMine()) {
+                        bits |= 1 << bitCount;
+                    }
+                    bitCount++;
+                    if (bitCount == 8) {
+                        this.columns[7].put((byte) bits);
+                        bits = 0;
+                        bitCount = 0;
+                    }
+                    this.columns[8].putFloat(cell == null ? Float.NaN : (float) risk[i][j]);
+                }
+            }
+            if (bitCount > 0) {
+                this.columns[7].put((byte) bits);
+            }
+            this.count++;
+        }
+        /**
+         * This method marks the given number of records at the end of the block, which are the decisions of the
+         * game that just ended, as won.
+         */
+        private void markWon(int records) {
+            for (int k = this.count - records; k < this.count; k++) {
+                this.columns[5].put(k, (byte) 1);
+            }
+        }
+        /**
+         * This method writes the block to the current shard, starting a new shard first if the current one is full.
+         */
+        private void flush() throws IOException {
+            if (this.count == 0) {
+                return;
+            }
+            if (this.channel == null || this.shardBytes >= Constants.EXPORT_SHARD_BYTES) {
+                this.close();
+                Path path = this.folder.resolve(String.format(Locale.ROOT, "shard-%d-%d.msd", this.thread,
+                        this.shard));
+                this.shard++;
+                this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+                this.shardBytes = 0;
+            }
+            this.header.clear();
+            this.header.putInt(MAGIC).putInt(FILE_VERSION).putInt(this.count).putInt(this.window).flip();
+            ByteBuffer[] block = new ByteBuffer[this.columns.length + 1];
+            block[0] = this.header;
+            long size = 16;
+            for (int c = 0; c < this.columns.length; c++) {
+                this.columns[c].flip();
+                block[c + 1] = this.columns[c];
+                size += this.columns[c].remaining();
+            }
+            long written = 0;
+            while (written < size) {
+                written += this.channel.write(block);
+            }
+            for (ByteBuffer column : this.columns) {
+                column.clear();
+            }
+            this.shardBytes += size;
+            this.bytes += size;
+            this.records += this.count;
+            this.count = 0;
+        }
+        /**
+         * This method closes the current shard if one is open.
+         */
+        private void close() throws IOException {
+            if (this.channel != null) {
+                this.channel.close();
+                this.channel = null;
+            }
+        }
+    }
+
+    /**
+     * This method is the constructor which stores the size of the boards, how many games to play, where to write
+     * and how many threads to play on.
+     */
+    public TrainingDataExporter(int rows, int cols, int mines, int games, Path folder, int threads) {
+        this.rows = rows;
+        this.cols = cols;
+        this.mines = mines;
+        this.games = games;
+        this.folder = folder;
+        this.threads = threads;
+    }
+    /**
+     * This method starts the exporter from the command line.
+     */
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        Path folder = Paths.get(args.length > 1 ? args[1] : "training-data");
+        String difficulty = args.length > 2 ? args[2] : "hard";
+        int rows = Constants.HARD_ROWS;
+        int cols = Constants.HARD_COLS;
+        int mines = Constants.HARD_MINES;
+        if (difficulty.equals("easy")) {
+            rows = Constants.EASY_ROWS;
+            cols = Constants.EASY_COLS;
+            mines = Constants.EASY_MINES;
+        }
+        else if (difficulty.equals("medium")) {
+            rows = Constants.MEDIUM_ROWS;
+            cols = Constants.MEDIUM_COLS;
+            mines = Constants.MEDIUM_MINES;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        new TrainingDataExporter(rows, cols, mines, games, folder, threads).run();
+    }
+    /**
+     * This method plays every game on a pool with one thread per shard writer and prints how much was written.
+     */
+    public void run() throws Exception {
+        Files.createDirectories(this.folder);
+        long start = System.nanoTime();
+        AtomicInteger nextGame = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(this.threads);
+        long records = 0;
+        long bytes = 0;
+        try {
+            List<Future<ShardWriter>> futures = new ArrayList<>();
+            for (int t = 0; t < this.threads; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> this.export(thread, nextGame)));
+            }
+            for (Future<ShardWriter> future : futures) {
+                ShardWriter writer = future.get();
+                records += writer.records;
+                bytes += writer.bytes;
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format(Locale.ROOT, "%d games, %d decisions, %.1f MB in %.1f s (%.0f decisions/s)",
+                this.games, records, bytes / 1e6, seconds, records / seconds));
+    }
+    /**
+     * This method plays games on one thread until none are left, writing their decisions to the thread's shards.
+     */
+    private ShardWriter export(int thread, AtomicInteger nextGame) throws IOException {
+        ShardWriter writer = new ShardWriter(this.folder, thread, Constants.EXPORT_WINDOW);
+        HintAI ai = new HintAI();
+        // a game is kept in one block so its records can be marked won when it ends
+        int limit = Math.min(this.rows * this.cols * 2, Constants.EXPORT_BATCH_RECORDS);
+        try {
+            int seed = nextGame.getAndIncrement();
+            while (seed < this.games) {
+                if (writer.room() < limit) {
+                    writer.flush();
+                }
+                int first = writer.count;
+                if (this.play(ai, seed, writer, limit)) {
+                    writer.markWon(writer.count - first);
+                }
+                seed = nextGame.getAndIncrement();
+            }
+            writer.flush();
+        }
+        finally {
+            writer.close();
+        }
+        return writer;
+    }
+    /**
+     * This method plays one game and adds each of its decisions to the writer, returning whether the game was won.
+     */
+    private boolean play(HintAI ai, long seed, ShardWriter writer, int limit) {
+        Board board = new Board(this.rows, this.cols, this.mines, null, seed);
+        board.reveal(this.rows / 2, this.cols / 2);
+        int decisions = 0;
+        while (!board.isGameOver() && decisions < limit) {
+            double[][] risk = ai.getRiskMap(board);
+            Move move = ai.chooseMove(board);
+            if (move == null) {
+                break;
+            }
+            writer.add(board, risk, seed, decisions, move);
+            decisions++;
+            move.apply(board);
+        }
+        return board.isWon();
+    }
+    /**
+     * This method returns how the player sees a cell, which is one of the views of BoardStream, or OFF if the cell
+     * is past the edge of the board.
+     */
+    private static byte viewOf(Cell cell) {
+        if (cell == null) {
+            return OFF;
+        }
+        if (cell.isFlagged()) {
+            return BoardStream.FLAG;
+        }
+        if (!cell.isRevealed()) {
+            return BoardStream.HIDDEN;
+        }
+        if (cell.isMine()) {
+            return BoardStream.MINE;
+        }
+        return (byte) Math.max(0, cell.getClueValue());
+    }
+}
@@ -0,0 +1,49 @@
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * This class runs small tasks once per JavaFX frame from a single shared animation timer, so that many games can
+ * batch their visual updates without each one needing its own timeline. The timer only runs while there are tasks.
+ */
+public class UiPulse {
+    private static final List<Runnable> TASKS = new ArrayList<>();
+    private static AnimationTimer timer;
+
+    private UiPulse() {
+    }
+    /**
+     * This method adds a task to run every frame and starts the timer if it was not running. It must be called on
+     * the JavaFX thread.
+     */
+    public static void add(Runnable task) {
+        if (TASKS.contains(task)) {
+            return;
+        }
+        TASKS.add(task);
+        if (timer == null) {
+            timer = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    for (Runnable t : new ArrayList<>(TASKS)) {
+                        t.run();
+                    }
+                }
+            };
+        }
+        if (TASKS.size() == 1) {
+            timer.start();
+        }
+    }
+    /**
+     * This method removes a task and stops the timer when no tasks are left. It must be called on the JavaFX thread.
+     */
+    public static void remove(Runnable task) {
+        if (TASKS.remove(task) && TASKS.isEmpty() && timer != null) {
+            timer.stop();
+        }
+    }
+}
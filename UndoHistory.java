@@ -0,0 +1,68 @@
+package minesweeper;
+
+import java.util.ArrayDeque;
+
+/**
+ * This class is a bounded stack of moves that can be undone. Each move only stores the cells it changed, so the
+ * memory used depends on how much was revealed rather than the size of the board.
+ */
+public class UndoHistory {
+    private ArrayDeque<BoardDelta> moves;
+    private BoardDelta current;
+    private int capacity;
+
+    /**
+     * This method is the constructor which sets how many moves are kept before the oldest ones are dropped.
+     */
+    public UndoHistory(int capacity) {
+        this.moves = new ArrayDeque<>();
+        this.current = null;
+        this.capacity = capacity;
+    }
+    /**
+     * This method starts recording a new move, remembering the flag count and game over state before it.
+     */
+    public void begin(int flagCount, boolean gameOver) {
+        this.current = new BoardDelta(flagCount, gameOver);
+    }
+    /**
+     * This method records a change to the cell at the given index if a move is being recorded.
+     */
+    public void record(int index, int kind) {
+        if (this.current != null) {
+            this.current.add(index, kind);
+        }
+    }
+    /**
+     * This method finishes the current move and pushes it onto the stack if it changed anything, dropping the oldest
+     * move when the stack is full.
+     */
+    public void commit() {
+        if (this.current != null && this.current.size() > 0) {
+            this.moves.push(this.current);
+            if (this.moves.size() > this.capacity) {
+                this.moves.removeLast();
+            }
+        }
+        this.current = null;
+    }
+    /**
+     * This method removes and returns the most recent move, or null if there is nothing to undo.
+     */
+    public BoardDelta pop() {
+        return this.moves.poll();
+    }
+    /**
+     * This method removes every recorded move.
+     */
+    public void clear() {
+        this.moves.clear();
+        this.current = null;
+    }
+    /**
+     * This getter method returns whether there is a move that can be undone.
+     */
+    public boolean canUndo() {
+        return !this.moves.isEmpty();
+    }
+}
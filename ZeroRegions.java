@@ -0,0 +1,219 @@
+package minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * This class labels the openings of a board once its numbers are known. An opening is a group of neighboring empty
+ * cells together with the numbered cells around them, which is exactly what clicking any of its empty cells reveals.
+ * The empty cells are joined into groups with union-find, and the cells of each opening are then stored one opening
+ * after another in a single array, so a click can reveal its whole opening without searching. The labels also give
+ * the 3BV of the board, the least number of clicks needed to clear it. The arrays are kept when the openings of a
+ * new game on the same board are labeled, so a restart does not allocate them again.
+ */
+public class ZeroRegions {
+    private int[] regionOf;
+    private int[] regionStart;
+    private int[] regionCells;
+    private int regionCount;
+    private int threeBV;
+    private int[] parent;
+    private int[] zeroCount;
+    private int[] stamp;
+
+    /**
+     * This method is the constructor which labels the openings from the topology of the board, the number of mines
+     * around every cell in row major order, and the mine layout.
+     */
+    public ZeroRegions(Topology topology, byte[] clues, BitBoard mines) {
+        this.relabel(topology, clues, mines);
+    }
+    /**
+     * This method labels the openings again for a new mine layout on a board of the same size, reusing the arrays
+     * of the last labeling. Only the array of opening cells can grow, when the new openings hold more cells.
+     */
+    public void relabel(Topology topology, byte[] clues, BitBoard mines) {
+        int rows = topology.getRows();
+        int cols = topology.getCols();
+        int size = rows * cols;
+        if (this.regionOf == null || this.regionOf.length != size) {
+            this.regionOf = new int[size];
+            this.regionStart = new int[size + 1];
+            this.regionCells = new int[0];
+            this.parent = new int[size];
+            this.zeroCount = new int[size + 1];
+            this.stamp = new int[size];
+        }
+        int[] parent = this.parent;
+        for (int cell = 0; cell < size; cell++) {
+            parent[cell] = cell;
+            if (!isZero(clues, mines, cell / cols, cell % cols, cols)) {
+                continue;
+            }
+            // join with the empty neighbors that were already visited
+            for (int k = topology.getStart(cell); k < topology.getEnd(cell); k++) {
+                int n = topology.getNeighbor(k);
+                if (n < cell && isZero(clues, mines, n / cols, n % cols, cols)) {
+                    union(parent, cell, n);
+                }
+            }
+        }
+        int[] zeroCount = this.zeroCount;
+        Arrays.fill(zeroCount, 0);
+        this.regionCount = 0;
+        for (int cell = 0; cell < size; cell++) {
+            this.regionOf[cell] = -1;
+            if (!isZero(clues, mines, cell / cols, cell % cols, cols)) {
+                continue;
+            }
+            int root = find(parent, cell);
+            if (root == cell) {
+                this.regionOf[cell] = this.regionCount;
+                this.regionCount++;
+            }
+            else {
+                this.regionOf[cell] = this.regionOf[root];
+            }
+            zeroCount[this.regionOf[cell] + 1]++;
+        }
+        // group the empty cells by opening so each opening can be walked on its own, in the array of parents that
+        // the groups no longer need
+        for (int r = 0; r < this.regionCount; r++) {
+            zeroCount[r + 1] += zeroCount[r];
+        }
+        int[] zeros = parent;
+        for (int cell = 0; cell < size; cell++) {
+            int region = this.regionOf[cell];
+            if (region >= 0) {
+                zeros[zeroCount[region]] = cell;
+                zeroCount[region]++;
+            }
+        }
+        for (int r = this.regionCount; r > 0; r--) {
+            zeroCount[r] = zeroCount[r - 1];
+        }
+        zeroCount[0] = 0;
+        int[] stamp = this.stamp;
+        Arrays.fill(stamp, -1);
+        this.regionStart[0] = 0;
+        int total = 0;
+        for (int r = 0; r < this.regionCount; r++) {
+            total += this.collect(topology, zeros, zeroCount[r], zeroCount[r + 1], r, stamp, null, 0);
+            this.regionStart[r + 1] = total;
+        }
+        Arrays.fill(stamp, -1);
+        if (this.regionCells.length < total) {
+            this.regionCells = new int[total];
+        }
+        for (int r = 0; r < this.regionCount; r++) {
+            this.collect(topology, zeros, zeroCount[r], zeroCount[r + 1], r, stamp, this.regionCells,
+                    this.regionStart[r]);
+        }
+        // every numbered cell that no opening reveals needs a click of its own
+        this.threeBV = this.regionCount;
+        for (int cell = 0; cell < size; cell++) {
+            int row = cell / cols;
+            int col = cell % cols;
+            if (!mines.isMine(row, col) && clues[cell] != 0 && stamp[cell] < 0) {
+                this.threeBV++;
+            }
+        }
+    }
+    /**
+     * This method returns whether the cell at the given coordinate is an empty cell that is not a mine.
+     */
+    private static boolean isZero(byte[] clues, BitBoard mines, int row, int col, int cols) {
+        return clues[row * cols + col] == 0 && !mines.isMine(row, col);
+    }
+    /**
+     * This method returns the root of the group holding the given cell, pointing cells at their grandparents on the
+     * way so later searches are shorter.
+     */
+    private static int find(int[] parent, int cell) {
+        while (parent[cell] != cell) {
+            parent[cell] = parent[parent[cell]];
+            cell = parent[cell];
+        }
+        return cell;
+    }
+    /**
+     * This method joins the groups of two cells, keeping the smaller index as the root so the first cell of every
+     * group in row major order is its root.
+     */
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA < rootB) {
+            parent[rootB] = rootA;
+        }
+        else if (rootB < rootA) {
+            parent[rootA] = rootB;
+        }
+    }
+    /**
+     * This method counts the cells of one opening, which are its empty cells and every cell around them, using the
+     * stamp array to count each cell once. When out is given the cells are also written into it from the offset.
+     */
+    private int collect(Topology topology, int[] zeros, int from, int to, int region, int[] stamp, int[] out,
+                        int offset) {
+        int count = 0;
+        for (int k = from; k < to; k++) {
+            int zero = zeros[k];
+            count = stampCell(zero, region, stamp, out, offset, count);
+            for (int n = topology.getStart(zero); n < topology.getEnd(zero); n++) {
+                count = stampCell(topology.getNeighbor(n), region, stamp, out, offset, count);
+            }
+        }
+        return count;
+    }
+    /**
+     * This method adds a cell to an opening unless it was already added, returning the new count of its cells.
+     */
+    private static int stampCell(int cell, int region, int[] stamp, int[] out, int offset, int count) {
+        if (stamp[cell] == region) {
+            return count;
+        }
+        stamp[cell] = region;
+        if (out != null) {
+            out[offset + count] = cell;
+        }
+        return count + 1;
+    }
+    /**
+     * This method returns the opening that the cell with the given row major index is an empty cell of, or -1 if it
+     * is not an empty cell.
+     */
+    public int getRegion(int cell) {
+        return this.regionOf[cell];
+    }
+    /**
+     * This method returns where the cells of the given opening start in the array of cells.
+     */
+    public int getStart(int region) {
+        return this.regionStart[region];
+    }
+    /**
+     * This method returns where the cells of the given opening end in the array of cells.
+     */
+    public int getEnd(int region) {
+        return this.regionStart[region + 1];
+    }
+    /**
+     * This method returns the row major index of the cell at the given position in the array of cells.
+     */
+    public int getCell(int position) {
+        return this.regionCells[position];
+    }
+    /**
+     * This getter method returns how many openings the board has.
+     */
+    public int getOpeningCount() {
+        return this.regionCount;
+    }
+    /**
+     * This getter method returns the 3BV of the board, which is the number of openings plus the number of numbered
+     * cells that are not next to any opening.
+     */
+    public int get3BV() {
+        return this.threeBV;
+    }
+}